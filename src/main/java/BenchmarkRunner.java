@@ -11,28 +11,112 @@ import org.cryptimeleon.craco.sig.sps.groth15.SPSGroth15PublicParametersGen;
 import org.cryptimeleon.craco.sig.sps.groth15.SPSGroth15SignatureScheme;
 import org.cryptimeleon.craco.sig.sps.kpw15.SPSKPW15PublicParameters;
 import org.cryptimeleon.craco.sig.sps.kpw15.SPSKPW15SignatureScheme;
+import org.cryptimeleon.math.structures.groups.Group;
 import org.cryptimeleon.math.structures.groups.debug.DebugBilinearGroup;
 import org.cryptimeleon.math.structures.groups.elliptic.BilinearGroup;
 import org.cryptimeleon.mclwrap.bn254.MclBilinearGroup;
 import spsbenchmark.*;
 
 import java.lang.reflect.Method;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 /**
  * prepares schemes for benchmark and provides entry point
  *
  * Usage:
- * BenchmarkRunner t|c <Groth1|AGHO11|AKOT15|KPW15> <messageLength> <prewarmIterations> <iterations>
+ * BenchmarkRunner t|c|p|s|i|o|v|ps|pv|w|f|e <Groth1|AGHO11|AKOT15|KPW15> <messageLength> <prewarmIterations> <iterations> [modeArgs...]
  *
- *     t|c                          : runs the benchmark in either counting or timer mode
+ *     t|c|p|s|i|o|v|ps|pv|w|f|e    : runs the benchmark in either timer, counting, pipeline, cold-start,
+ *                                    input class, offline/online (Groth1 only), verification cache,
+ *                                    parallel sign, parallel verify (Groth1 only), scenario (mixed workload),
+ *                                    footprint or encoding mode
  *     Groth1|AGHO11|AKOT15|KPW15   : selects a scheme for benchmarking
  *     messageLength                : the length of messages passed to the selected scheme for signing
  *     prewarmIterations            : runs all benchmark steps (setup,keyGen,sign,verify) for the specified number
  *                                    of times without measuring
  *     iterations                   : runs all benchmark steps (setup,keyGen,sign,verify) for the specified number
  *                                    of times while measuring either time or operations performed
+ *     modeArgs                     : optional arguments of the selected mode
+ *
+ * Timer mode arguments:
+ * [threads] [parallelThreshold] [compact]
+ *
+ *     threads                      : the number of threads computing the results of keyGen and sign (default 1)
+ *     parallelThreshold            : the minimal number of group elements in a result for it to be computed in
+ *                                    parallel (default 4)
+ *     compact                      : 1 to compact the key pairs and signatures kept between steps, 0 to keep them
+ *                                    as returned by the scheme (default 0)
+ *
+ * Pipeline mode arguments:
+ * [queueCapacity] [signThreads] [encodeThreads] [transmitThreads] [decodeThreads] [verifyThreads]
+ *
+ *     queueCapacity                : the capacity of the queue in front of each stage (default 16)
+ *     ...Threads                   : the number of worker threads of each stage (default 1)
+ *
+ * Cold-start mode arguments:
+ * [parameterDirectory]
+ *
+ *     parameterDirectory           : where to store the pre-generated parameters, keys and AppCDS archive
+ *                                    (default "coldstart"). prewarmIterations and iterations give the number of
+ *                                    unmeasured and measured JVM launches per variant
+ *
+ * Offline/online mode arguments:
+ * [poolCapacity] [workerThreads] [burstSize]
+ *
+ *     poolCapacity                 : the number of presignatures the pool holds (default 64)
+ *     workerThreads                : the number of threads refilling the pool (default 2)
+ *     burstSize                    : the number of back-to-back requests draining the pool (default 4 * poolCapacity)
+ *
+ * Verification cache mode arguments:
+ * [repeatRatio] [cacheCapacity] [requests]
+ *
+ *     repeatRatio                  : the probability of a request repeating an earlier credential (default 0.9)
+ *     cacheCapacity                : the number of accepted credentials the cache holds (default 1024)
+ *     requests                     : the number of verification requests (default 10 * iterations). There are
+ *                                    iterations distinct credentials
+ *
+ * Parallel sign mode arguments:
+ * [maxThreads] [parallelThreshold]
+ *
+ *     maxThreads                   : the largest thread count to measure (default: available processors).
+ *                                    Thread counts and message lengths double from 1 up to the given maximum
+ *     parallelThreshold            : as in timer mode (default 4)
+ *
+ * Parallel verify mode arguments (Groth1 only):
+ * [maxThreads]
+ *
+ *     maxThreads                   : the largest thread count to measure (default: available processors).
+ *                                    Thread counts and message lengths double from 1 up to the given maximum
+ *
+ *     The verification equations are taken from a separate implementation of Groth15, as craco evaluates the
+ *     pairings of its verify internally. AGHO11, AKOT15 and KPW15 are not implemented separately
+ *
+ * Scenario mode arguments (key=value, in any order):
+ * [mix=keyGen:sign:verify] [keys=count] [lengths=length[:weight],...] [clients=count] [duration=seconds]
+ *
+ *     mix                          : the relative frequency of each operation (default 1:100:10000)
+ *     keys                         : the number of key pairs per message length (default 8)
+ *     lengths                      : the message lengths and their relative frequency (default messageLength).
+ *                                    iterations messages are generated per length
+ *     clients                      : the number of clients sending requests concurrently (default 4)
+ *     duration                     : how long the workload is run in seconds (default 30)
+ *
+ * Footprint mode arguments:
+ * [copies]
+ *
+ *     copies                       : the number of copies of each object held per measurement
+ *                                    (default iterations). Message lengths double from 1 up to messageLength
+ *
+ * Encoding mode arguments:
+ * [payloadSize] [distinctValues] [cacheCapacity]
+ *
+ *     payloadSize                  : the number of bytes per attribute (default 32)
+ *     distinctValues               : the number of distinct attribute values (default 64)
+ *     cacheCapacity                : the number of encodings the cache holds (default 1024)
  */
 public class BenchmarkRunner
 {
@@ -41,6 +125,9 @@ public class BenchmarkRunner
     private static int BM_ITERATIONS;
     private static int MESSAGE_LENGTH;
 
+    // any arguments following the iterations. Their meaning depends on the mode
+    private static String[] MODE_ARGUMENTS;
+
     public static String CURRENT_SCHEME;
 
     // the bilinear group to use
@@ -68,7 +155,7 @@ public class BenchmarkRunner
     // go, benchmarks, go!
     /**
      * Runs a benchmark with the selected parameters
-     * Usage: main (t|c) NameOfScheme messageLength prewarmIterations iterations
+     * Usage: main (t|c|p|s|i|o|v|ps|pv|w|f|e) NameOfScheme messageLength prewarmIterations iterations [modeArgs...]
      */
     public static void main(String[] args) {
         // parse message length, pre-warm iterations and iterations from args
@@ -76,11 +163,18 @@ public class BenchmarkRunner
         MESSAGE_LENGTH      = Integer.parseInt(args[2]);
         PREWARM_ITERATIONS  = Integer.parseInt(args[3]);
         BM_ITERATIONS       = Integer.parseInt(args[4]);
-
-        prepareBenchmark(args[1]);
+        MODE_ARGUMENTS      = Arrays.copyOfRange(args, 5, args.length);
 
         //find appropriate benchmark to run via reflections
-        BenchmarkMode mode = (args[0].equals("t")) ? BenchmarkMode.Time : BenchmarkMode.Counting;
+        BenchmarkMode mode = BenchmarkMode.fromArgument(args[0]);
+
+        if(mode == BenchmarkMode.ColdStartProbe) {
+            prepareProbe(args[1]);
+        }
+        else {
+            prepareBenchmark(args[1]);
+        }
+
         String benchmarkMethodName = "run" + args[1] + "Benchmark";
 
         try{
@@ -116,6 +210,143 @@ public class BenchmarkRunner
         // set up complete
     }
 
+    /**
+     * prepares a cold-start probe, which sets up its group itself so that it is measured.
+     * Only the config is set, without groups or messages
+     */
+    private static void prepareProbe(String schemeName) {
+
+        sharedConfig = new BenchmarkConfig(schemeName, null, null,
+                PREWARM_ITERATIONS, BM_ITERATIONS, MESSAGE_LENGTH);
+
+        group1MessageBlocks = new MessageBlock[0];
+        group2MessageBlocks = new MessageBlock[0];
+
+        group1CountingMessageBlocks = new MessageBlock[0];
+        group2CountingMessageBlocks = new MessageBlock[0];
+    }
+
+    /**
+     * runs the benchmark selected by {@param mode} for the scheme constructed by {@param constructionDelegate}.
+     * {@param messages} are signed in timer based modes, {@param countingMessages} in counting mode.
+     * Modes generating their own messages do so in {@param messageGroup} and wrap them using {@param messageWrapper}
+     * to get them into the shape the scheme expects.
+     * Modes drawing random workloads use fixed seeds, so that runs are comparable
+     */
+    private static void runBenchmark(BenchmarkMode mode,
+                                     MessageBlock[] messages,
+                                     MessageBlock[] countingMessages,
+                                     Function<BilinearGroup,Group> messageGroup,
+                                     UnaryOperator<MessageBlock> messageWrapper,
+                                     BiFunction<BilinearGroup,Integer,MultiMessageStructurePreservingSignatureScheme> constructionDelegate) {
+        switch (mode) {
+            case Time:
+                new SPSBenchmark(sharedConfig.withParallelism(parseModeArgument(0, 1), parseModeArgument(1, 4))
+                                .withCompaction(parseModeArgument(2, 0) != 0),
+                        BenchmarkMode.Time, messages, constructionDelegate);
+                break;
+            case Counting:
+                new SPSBenchmark(sharedConfig, BenchmarkMode.Counting, countingMessages, constructionDelegate);
+                break;
+            case Pipeline:
+                int queueCapacity = parseModeArgument(0, 16);
+                int[] stageThreads = new int[PipelineBenchmark.STAGE_NAMES.length];
+                for (int i = 0; i < stageThreads.length; i++) {
+                    stageThreads[i] = parseModeArgument(i + 1, 1);
+                }
+                new PipelineBenchmark(sharedConfig, messages, constructionDelegate, queueCapacity, stageThreads);
+                break;
+            case ColdStart:
+                new ColdStartBenchmark(sharedConfig, messages, constructionDelegate,
+                        new ParameterStore(Paths.get(parseModeArgument(0, "coldstart"))),
+                        BenchmarkRunner.class.getName());
+                break;
+            case ColdStartProbe:
+                // launched by ColdStartBenchmark in a fresh JVM
+                new ColdStartProbe(sharedConfig, () -> new MclBilinearGroup(GROUP_CHOICE), constructionDelegate,
+                        new ParameterStore(Paths.get(MODE_ARGUMENTS[0])),
+                        MODE_ARGUMENTS[1].equals("load"));
+                break;
+            case InputClass:
+                new InputClassBenchmark(sharedConfig, messageGroup, messageWrapper, constructionDelegate);
+                break;
+            case OfflineOnline:
+                // splitting sign requires access to the randomness, which is only implemented for Groth1
+                if(!sharedConfig.getSchemeName().equals("Groth1")) {
+                    throw new IllegalArgumentException("offline/online signing is only implemented for Groth1");
+                }
+                int poolCapacity = parseModeArgument(0, 64);
+                new OfflineOnlineBenchmark(sharedConfig, messages, constructionDelegate,
+                        poolCapacity, parseModeArgument(1, 2), parseModeArgument(2, 4 * poolCapacity));
+                break;
+            case VerificationCache:
+                new VerificationCacheBenchmark(sharedConfig, messages, constructionDelegate,
+                        parseModeArgument(0, 0.9), parseModeArgument(1, 1024),
+                        parseModeArgument(2, 10 * BM_ITERATIONS));
+                break;
+            case ParallelSign:
+                new ParallelSignBenchmark(sharedConfig, messageGroup, messageWrapper, constructionDelegate,
+                        parsePositiveModeArgument(0, Runtime.getRuntime().availableProcessors(), "maxThreads"),
+                        parseModeArgument(1, 4));
+                break;
+            case ParallelVerify:
+                // splitting verify requires access to its pairings, which is only implemented for Groth1
+                if(!sharedConfig.getSchemeName().equals("Groth1")) {
+                    throw new IllegalArgumentException(String.format(
+                            "parallel verification is only implemented for Groth1, not for %s (see the usage)",
+                            sharedConfig.getSchemeName()));
+                }
+                new ParallelVerifyBenchmark(sharedConfig, constructionDelegate,
+                        parsePositiveModeArgument(0, Runtime.getRuntime().availableProcessors(), "maxThreads"));
+                break;
+            case Scenario:
+                new ScenarioBenchmark(sharedConfig, Scenario.parse(MODE_ARGUMENTS, MESSAGE_LENGTH),
+                        messageGroup, messageWrapper, constructionDelegate);
+                break;
+            case Footprint:
+                new FootprintBenchmark(sharedConfig, messageGroup, messageWrapper, constructionDelegate,
+                        parseModeArgument(0, BM_ITERATIONS));
+                break;
+            case Encoding:
+                new EncodingBenchmark(sharedConfig, messageGroup, messageWrapper, constructionDelegate,
+                        parseModeArgument(0, 32), parseModeArgument(1, 64), parseModeArgument(2, 1024));
+                break;
+        }
+    }
+
+    /**
+     * parses the {@param index}th mode argument, falling back to {@param defaultValue} if it was not given
+     */
+    private static int parseModeArgument(int index, int defaultValue) {
+        return (index < MODE_ARGUMENTS.length) ? Integer.parseInt(MODE_ARGUMENTS[index]) : defaultValue;
+    }
+
+    /**
+     * parses the {@param index}th mode argument like {@link #parseModeArgument(int, int)},
+     * rejecting values below 1. {@param name} names the argument in the error
+     */
+    private static int parsePositiveModeArgument(int index, int defaultValue, String name) {
+        int value = parseModeArgument(index, defaultValue);
+        if(value < 1) {
+            throw new IllegalArgumentException(String.format("%s: must be at least 1, got %s", name, value));
+        }
+        return value;
+    }
+
+    /**
+     * parses the {@param index}th mode argument, falling back to {@param defaultValue} if it was not given
+     */
+    private static double parseModeArgument(int index, double defaultValue) {
+        return (index < MODE_ARGUMENTS.length) ? Double.parseDouble(MODE_ARGUMENTS[index]) : defaultValue;
+    }
+
+    /**
+     * gives the {@param index}th mode argument, falling back to {@param defaultValue} if it was not given
+     */
+    private static String parseModeArgument(int index, String defaultValue) {
+        return (index < MODE_ARGUMENTS.length) ? MODE_ARGUMENTS[index] : defaultValue;
+    }
+
     /**
      * runs a benchmark for the Groth15 SPS scheme (signing G_1 elements)
      */
@@ -133,16 +364,9 @@ public class BenchmarkRunner
                 return new SPSGroth15SignatureScheme(params);
         };
 
-        if(mode == BenchmarkMode.Time) {
-            //run Groth1 benchmark in timing mode
-            new SPSBenchmark(sharedConfig, BenchmarkMode.Time,
-                    group1MessageBlocks, constructionDelegate);
-        }
-        else {
-            //run Groth1 benchmark in counting mode
-            new SPSBenchmark(sharedConfig, BenchmarkMode.Counting,
-                    group1CountingMessageBlocks, constructionDelegate);
-        }
+        //run Groth1 benchmark in the selected mode
+        runBenchmark(mode, group1MessageBlocks, group1CountingMessageBlocks,
+                BilinearGroup::getG1, UnaryOperator.identity(), constructionDelegate);
     }
 
 
@@ -156,12 +380,12 @@ public class BenchmarkRunner
         PrintBenchmarkUtils.printSeparator();
 
         //Note: for this scheme, we need to wrap the messages within a second messageBlock
-        MessageBlock[] wrappedMessages = Arrays.stream(group1MessageBlocks).map(
-                x -> new MessageBlock(x, new MessageBlock()))
+        UnaryOperator<MessageBlock> messageWrapper = x -> new MessageBlock(x, new MessageBlock());
+
+        MessageBlock[] wrappedMessages = Arrays.stream(group1MessageBlocks).map(messageWrapper)
                 .toArray(MessageBlock[]::new);
 
-        MessageBlock[] wrappedCountingMessages = Arrays.stream(group1CountingMessageBlocks).map(
-                        x -> new MessageBlock(x, new MessageBlock()))
+        MessageBlock[] wrappedCountingMessages = Arrays.stream(group1CountingMessageBlocks).map(messageWrapper)
                 .toArray(MessageBlock[]::new);
 
 
@@ -174,16 +398,9 @@ public class BenchmarkRunner
             return new SPSAGHO11SignatureScheme(params);
         };
 
-        if(mode == BenchmarkMode.Time) {
-            //run AGHO benchmark in timing mode
-            new SPSBenchmark(sharedConfig, BenchmarkMode.Time,
-                    wrappedMessages, constructionDelegate);
-        }
-        else {
-            //run AGHO benchmark in counting mode
-            new SPSBenchmark(sharedConfig, BenchmarkMode.Counting,
-                    wrappedCountingMessages, constructionDelegate);
-        }
+        //run AGHO benchmark in the selected mode
+        runBenchmark(mode, wrappedMessages, wrappedCountingMessages,
+                BilinearGroup::getG1, messageWrapper, constructionDelegate);
     }
 
 
@@ -206,16 +423,9 @@ public class BenchmarkRunner
             return new SPSFSP2SignatureScheme(params);
         };
 
-        if(mode == BenchmarkMode.Time) {
-            //run AKOT15 benchmark in timing mode
-            new SPSBenchmark(sharedConfig, BenchmarkMode.Time,
-                    group2MessageBlocks, constructionDelegate);
-        }
-        else {
-            //run AKOT15 benchmark in counting mode
-            new SPSBenchmark(sharedConfig, BenchmarkMode.Counting,
-                    group2CountingMessageBlocks, constructionDelegate);
-        }
+        //run AKOT15 benchmark in the selected mode
+        runBenchmark(mode, group2MessageBlocks, group2CountingMessageBlocks,
+                BilinearGroup::getG2, UnaryOperator.identity(), constructionDelegate);
     }
 
     /**
@@ -237,16 +447,9 @@ public class BenchmarkRunner
             return new SPSKPW15SignatureScheme(params);
         };
 
-        if(mode == BenchmarkMode.Time) {
-            //run KPW15 benchmark in timing mode
-            new SPSBenchmark(sharedConfig, BenchmarkMode.Time,
-                    group1MessageBlocks, constructionDelegate);
-        }
-        else {
-            //run KPW15 benchmark in counting mode
-            new SPSBenchmark(sharedConfig, BenchmarkMode.Counting,
-                    group1CountingMessageBlocks, constructionDelegate);
-        }
+        //run KPW15 benchmark in the selected mode
+        runBenchmark(mode, group1MessageBlocks, group1CountingMessageBlocks,
+                BilinearGroup::getG1, UnaryOperator.identity(), constructionDelegate);
     }
     
 
@@ -40,8 +40,31 @@ public class BenchmarkConfig {
      */
     private int messageLength;
 
+    /**
+     * the number of threads used to compute the results of keyGen and sign (1 computes them sequentially)
+     */
+    private int parallelism;
+
+    /**
+     * the minimal number of group elements in a result for it to be computed in parallel
+     */
+    private int parallelThreshold;
+
+    /**
+     * whether the key pairs and signatures kept by timer benchmarks are compacted (see {@link Compaction})
+     */
+    private boolean compaction;
+
 
     public BenchmarkConfig(String spsName, BilinearGroup timerBGroup, DebugBilinearGroup countingBGroup, int prewarmIterations, int runIterations, int messageLength) {
+        this(spsName, timerBGroup, countingBGroup, prewarmIterations, runIterations, messageLength, 1, Integer.MAX_VALUE);
+    }
+
+    public BenchmarkConfig(String spsName, BilinearGroup timerBGroup, DebugBilinearGroup countingBGroup, int prewarmIterations, int runIterations, int messageLength, int parallelism, int parallelThreshold) {
+        this(spsName, timerBGroup, countingBGroup, prewarmIterations, runIterations, messageLength, parallelism, parallelThreshold, false);
+    }
+
+    public BenchmarkConfig(String spsName, BilinearGroup timerBGroup, DebugBilinearGroup countingBGroup, int prewarmIterations, int runIterations, int messageLength, int parallelism, int parallelThreshold, boolean compaction) {
         this.schemeName = spsName;
         this.timerBGroup = timerBGroup;
         this.countingBGroup = countingBGroup;
@@ -55,6 +78,9 @@ public class BenchmarkConfig {
         this.prewarmIterations = prewarmIterations;
         this.runIterations = runIterations;
         this.messageLength = messageLength;
+        this.parallelism = parallelism;
+        this.parallelThreshold = parallelThreshold;
+        this.compaction = compaction;
     }
 
     public BilinearGroup getTimerBGroup() {
@@ -79,12 +105,52 @@ public class BenchmarkConfig {
         return schemeName;
     }
 
+    /**
+     * gives a copy of this config computing results on {@param parallelism} threads,
+     * if they contain at least {@param parallelThreshold} group elements
+     */
+    public BenchmarkConfig withParallelism(int parallelism, int parallelThreshold) {
+        return new BenchmarkConfig(schemeName, timerBGroup, countingBGroup, prewarmIterations, runIterations,
+                messageLength, parallelism, parallelThreshold, compaction);
+    }
+
+    /**
+     * gives a copy of this config that compacts the key pairs and signatures kept by timer benchmarks
+     * if {@param compaction} is set
+     */
+    public BenchmarkConfig withCompaction(boolean compaction) {
+        return new BenchmarkConfig(schemeName, timerBGroup, countingBGroup, prewarmIterations, runIterations,
+                messageLength, parallelism, parallelThreshold, compaction);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    public boolean isCompaction() {
+        return compaction;
+    }
+
 
     public String toPrettyString() {
-        return String.format("%s iterations :: messageLength %s :: %s pre-warm",
+        String prettyString = String.format("%s iterations :: messageLength %s :: %s pre-warm",
                 runIterations,
                 messageLength,
                 prewarmIterations);
+
+        if(parallelism > 1) {
+            prettyString += String.format(" :: %s threads (from %s elements)", parallelism, parallelThreshold);
+        }
+
+        if(compaction) {
+            prettyString += " :: compacted results";
+        }
+
+        return prettyString;
     }
 
 }
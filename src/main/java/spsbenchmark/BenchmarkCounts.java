@@ -1,60 +1,124 @@
 package spsbenchmark;
 
+import java.util.Arrays;
+import java.util.TreeMap;
+
 /**
- * holds a set of operations counted during a benchmark
+ * holds the operations counted in each iteration of a single benchmark step
  */
 public class BenchmarkCounts {
 
-    //TODO
-    private int groupOpsSetup;
-
     /**
-     * count of group operations in generateKeys()
+     * the groups multi-exponentiations are counted in, in the order of {@code multiExpTerms}
      */
-    private int groupOpsKeyGen;
+    public static final String[] GROUP_NAMES = {"G_1", "G_2", "G_T"};
 
     /**
-     * count of group operations in sign()
+     * count of group operations (in G_1, G_2 and G_T) per iteration
      */
-    private int groupOpsSign;
+    private final long[] groupOps;
 
     /**
-     * count of group operations in verify() (does not include bMap.apply())
+     * count of exponentiations (in G_1, G_2 and G_T) per iteration
      */
-    private int groupOpsVerify;
+    private final long[] groupExps;
 
+    /**
+     * count of applied pairings per iteration
+     */
+    private final long[] bMapApply;
 
     /**
-     * count of applied pairings
+     * the term numbers of the multi-exponentiations per group (see {@code GROUP_NAMES}) and iteration.
+     * These are not included in {@code groupExps}
      */
-    private int bMapApply;
+    private final int[][][] multiExpTerms;
 
-    public BenchmarkCounts(int groupOpsSetup, int groupOpsKeyGen, int groupOpsSign, int groupOpsVerify, int bMapApply) {
-        this.groupOpsSetup = groupOpsSetup;
-        this.groupOpsKeyGen = groupOpsKeyGen;
-        this.groupOpsSign = groupOpsSign;
-        this.groupOpsVerify = groupOpsVerify;
+    public BenchmarkCounts(long[] groupOps, long[] groupExps, long[] bMapApply, int[][][] multiExpTerms) {
+        this.groupOps = groupOps;
+        this.groupExps = groupExps;
         this.bMapApply = bMapApply;
+        this.multiExpTerms = multiExpTerms;
     }
 
-    public int getGroupOpsSetup() {
-        return groupOpsSetup;
+    public long[] getGroupOps() {
+        return groupOps;
     }
 
-    public int getGroupOpsKeyGen() {
-        return groupOpsKeyGen;
+    public long[] getGroupExps() {
+        return groupExps;
     }
 
-    public int getGroupOpsSign() {
-        return groupOpsSign;
+    public long[] getbMapApply() {
+        return bMapApply;
     }
 
-    public int getGroupOpsVerify() {
-        return groupOpsVerify;
+    public int[][][] getMultiExpTerms() {
+        return multiExpTerms;
     }
 
-    public int getbMapApply() {
-        return bMapApply;
+    /**
+     * gives the number of multi-exponentiations in group {@param group} (see {@code GROUP_NAMES}) per iteration
+     */
+    public long[] getMultiExps(int group) {
+        return Arrays.stream(multiExpTerms[group]).mapToLong(terms -> terms.length).toArray();
+    }
+
+    /**
+     * gives the term numbers of all multi-exponentiations in group {@param group} over all iterations
+     */
+    public long[] getAllMultiExpTerms(int group) {
+        return Arrays.stream(multiExpTerms[group]).flatMapToInt(Arrays::stream).asLongStream().toArray();
+    }
+
+    public static long min(long[] counts) {
+        return Arrays.stream(counts).min().orElse(0);
+    }
+
+    public static long max(long[] counts) {
+        return Arrays.stream(counts).max().orElse(0);
+    }
+
+    public static double mean(long[] counts) {
+        return Arrays.stream(counts).average().orElse(0);
+    }
+
+    /**
+     * gives how many iterations had each count, ordered by count
+     */
+    public static TreeMap<Long,Integer> distribution(long[] counts) {
+        TreeMap<Long,Integer> distribution = new TreeMap<>();
+
+        for (long count : counts) {
+            distribution.merge(count, 1, Integer::sum);
+        }
+
+        return distribution;
+    }
+
+    private static String formatCounts(String name, long[] counts) {
+        return PrintBenchmarkUtils.padString(String.format("*** %s :: avg: %.2f  |  min: %s  |  max: %s  | distribution: %s",
+                name,
+                mean(counts),
+                min(counts),
+                max(counts),
+                distribution(counts)), PrintBenchmarkUtils.CONSOLE_WIDTH);
+    }
+
+    public String getPrettyString() {
+        StringBuilder prettyString = new StringBuilder(String.join(System.lineSeparator(),
+                formatCounts("Group ops", groupOps),
+                formatCounts("Exponentiations", groupExps),
+                formatCounts("Pairings", bMapApply)));
+
+        for (int group = 0; group < GROUP_NAMES.length; group++) {
+            prettyString.append(System.lineSeparator())
+                    .append(formatCounts("Multi-exps " + GROUP_NAMES[group], getMultiExps(group)))
+                    .append(System.lineSeparator())
+                    .append(formatCounts("Multi-exp terms " + GROUP_NAMES[group], getAllMultiExpTerms(group)));
+        }
+
+        return prettyString.toString();
     }
 
 }
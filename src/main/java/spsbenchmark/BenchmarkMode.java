@@ -1,3 +1,49 @@
 package spsbenchmark;
 
-public enum BenchmarkMode {Time, Counting}
+/**
+ * the kinds of benchmark that can be run.
+ * Each mode is selected via its command line argument (see {@code BenchmarkRunner})
+ */
+public enum BenchmarkMode {
+
+    Time("t"),
+    Counting("c"),
+    Pipeline("p"),
+    ColdStart("s"),
+    ColdStartProbe("sp"),
+    InputClass("i"),
+    OfflineOnline("o"),
+    VerificationCache("v"),
+    ParallelSign("ps"),
+    ParallelVerify("pv"),
+    Scenario("w"),
+    Footprint("f"),
+    Encoding("e");
+
+    /**
+     * the command line argument selecting this mode
+     */
+    private final String argument;
+
+    BenchmarkMode(String argument) {
+        this.argument = argument;
+    }
+
+    public String getArgument() {
+        return argument;
+    }
+
+    /**
+     * finds the mode selected by the given command line argument
+     */
+    public static BenchmarkMode fromArgument(String argument) {
+        for (BenchmarkMode mode : values()) {
+            if(mode.argument.equals(argument)) {
+                return mode;
+            }
+        }
+
+        throw new IllegalArgumentException(String.format("unknown benchmark mode: %s", argument));
+    }
+
+}
@@ -1,5 +1,8 @@
 package spsbenchmark;
 
+import java.util.function.IntConsumer;
+import java.util.function.IntToLongFunction;
+
 /**
  * holds a set of benchmark times
  */
@@ -36,6 +39,64 @@ public class BenchmarkTimes {
         return avgTime;
     }
 
+    /**
+     * calculates the min, max, total and average of the given times (in nanoseconds)
+     */
+    public static BenchmarkTimes fromSamples(long[] samples) {
+
+        double sumTime = 0;
+        double minTime = Double.MAX_VALUE;
+        double maxTime = Double.MIN_VALUE;
+
+        for (long sample : samples) {
+            minTime = Math.min(minTime, sample);
+            maxTime = Math.max(maxTime, sample);
+            sumTime += sample;
+        }
+
+        return new BenchmarkTimes(minTime, maxTime, sumTime, sumTime / samples.length);
+    }
+
+    /**
+     * runs {@param step} {@param prewarmIterations} times without measuring and then measures it for
+     * {@param runIterations} iterations. {@param step} is given the index of the iteration,
+     * which wraps around {@param runIterations} when pre-warming
+     */
+    public static BenchmarkTimes measure(int prewarmIterations, int runIterations, IntConsumer step) {
+        return measure(prewarmIterations, runIterations, step, step);
+    }
+
+    /**
+     * like {@link #measure(int, int, IntConsumer)}, but pre-warms with {@param prewarmStep} instead
+     */
+    public static BenchmarkTimes measure(int prewarmIterations, int runIterations,
+                                         IntConsumer prewarmStep, IntConsumer step) {
+        return measureSelfTimed(prewarmIterations, runIterations, prewarmStep, i -> {
+            long refTime = System.nanoTime();
+            step.accept(i);
+            return System.nanoTime() - refTime;
+        });
+    }
+
+    /**
+     * like {@link #measure(int, int, IntConsumer, IntConsumer)}, but {@param step} measures itself
+     * and returns the time it took
+     */
+    public static BenchmarkTimes measureSelfTimed(int prewarmIterations, int runIterations,
+                                                  IntConsumer prewarmStep, IntToLongFunction step) {
+
+        for (int i = 0; i < prewarmIterations; i++) {
+            prewarmStep.accept(i % runIterations);
+        }
+
+        long[] samples = new long[runIterations];
+        for (int i = 0; i < runIterations; i++) {
+            samples[i] = step.applyAsLong(i);
+        }
+
+        return fromSamples(samples);
+    }
+
     public static String formatTimeInMs(double timeInNanoSeconds) { return milliFromNano(timeInNanoSeconds) + " ms"; }
 
     public static double milliFromNano(double timeInNanoSeconds) { return timeInNanoSeconds / 1000000; }
@@ -0,0 +1,121 @@
+package spsbenchmark;
+
+import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
+import org.cryptimeleon.craco.sig.MultiMessageStructurePreservingSignatureScheme;
+import org.cryptimeleon.craco.sig.Signature;
+import org.cryptimeleon.craco.sig.VerificationKey;
+import org.cryptimeleon.math.serialization.Representable;
+import org.cryptimeleon.math.serialization.converter.JSONConverter;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wraps the verify of a scheme, remembering accepted {@code (verification key, message, signature)} triples.
+ *
+ * Triples are identified by the SHA-256 hash of the JSON encoding of their representations.
+ * Only accepted triples are cached; rejected ones are verified again each time.
+ * The cache holds at most {@code capacity} triples and evicts the least recently used one when full.
+ */
+public class CachingVerifier {
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private final MultiMessageStructurePreservingSignatureScheme scheme;
+
+    /**
+     * the hashes of accepted triples
+     */
+    private final LruCache<ByteBuffer,Boolean> acceptedTriples;
+
+    private final JSONConverter converter;
+
+    /**
+     * the total time spent encoding and hashing triples (in nanoseconds)
+     */
+    private final AtomicLong hashingTime;
+
+
+    public CachingVerifier(MultiMessageStructurePreservingSignatureScheme scheme, int capacity) {
+        this.scheme = scheme;
+        this.acceptedTriples = new LruCache<>(capacity);
+        this.converter = new JSONConverter();
+        this.hashingTime = new AtomicLong();
+    }
+
+    /**
+     * verifies {@param sigma} on {@param message} under {@param verificationKey},
+     * answering from the cache if the same triple was accepted before
+     */
+    public boolean verify(MessageBlock message, Signature sigma, VerificationKey verificationKey) {
+
+        long refTime = System.nanoTime();
+        ByteBuffer tripleHash = hash(verificationKey, message, sigma);
+        hashingTime.addAndGet(System.nanoTime() - refTime);
+
+        if(acceptedTriples.get(tripleHash) != null) {
+            return true;
+        }
+
+        boolean valid = scheme.verify(message, sigma, verificationKey);
+
+        if(valid) {
+            acceptedTriples.put(tripleHash, Boolean.TRUE);
+        }
+
+        return valid;
+    }
+
+    /**
+     * hashes the encodings of {@param parts}, each prefixed by its length
+     */
+    private ByteBuffer hash(Representable... parts) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(HASH_ALGORITHM);
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        for (Representable part : parts) {
+            byte[] encoding = converter.serialize(part.getRepresentation()).getBytes(StandardCharsets.UTF_8);
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(encoding.length).array());
+            digest.update(encoding);
+        }
+
+        return ByteBuffer.wrap(digest.digest());
+    }
+
+
+    public int getCapacity() {
+        return acceptedTriples.getCapacity();
+    }
+
+    public int size() {
+        return acceptedTriples.size();
+    }
+
+    public long getHits() {
+        return acceptedTriples.getHits();
+    }
+
+    public long getMisses() {
+        return acceptedTriples.getMisses();
+    }
+
+    public double getHitRate() {
+        return acceptedTriples.getHitRate();
+    }
+
+    /**
+     * the total time spent encoding and hashing triples (in nanoseconds)
+     */
+    public long getHashingTime() {
+        return hashingTime.get();
+    }
+
+}
@@ -0,0 +1,250 @@
+package spsbenchmark;
+
+import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
+import org.cryptimeleon.craco.sig.MultiMessageStructurePreservingSignatureScheme;
+import org.cryptimeleon.craco.sig.SignatureKeyPair;
+import org.cryptimeleon.math.structures.groups.elliptic.BilinearGroup;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.function.BiFunction;
+
+/**
+ * Measures how long a freshly started JVM takes until its first signature and first verification.
+ *
+ * Stores public parameters, keys and a message in a {@link ParameterStore} and then launches
+ * {@link ColdStartProbe}s in new JVMs, each of which signs and verifies once. This is done for several variants:
+ * regenerating the parameters, loading them from disk, and loading them with class-data sharing disabled or with
+ * an application class-data sharing (AppCDS) archive recorded for the probe.
+ */
+public class ColdStartBenchmark {
+
+    /**
+     * the file name of the AppCDS archive within the store's directory
+     */
+    private static final String CDS_ARCHIVE_FILE = "coldstart.jsa";
+
+
+    // these are given on start up
+
+    /**
+     * defines the shared parameters of the benchmark.
+     * {@code runIterations} gives the number of measured JVM launches per variant
+     */
+    private final BenchmarkConfig config;
+
+    private final ParameterStore store;
+
+    /**
+     * the class whose main method launches a {@link ColdStartProbe} (i.e. {@code BenchmarkRunner})
+     */
+    private final String mainClassName;
+
+
+    /**
+     * Stores the times of each phase per variant
+     */
+    private final LinkedHashMap<String,LinkedHashMap<String,BenchmarkTimes>> variantResults;
+
+
+    /**
+     * Sets up a cold-start benchmark for the scheme generated by {@param schemeSetupFunction}.
+     * The first of {@param messages} is stored for signing by the probes.
+     */
+    public ColdStartBenchmark(BenchmarkConfig config,
+                              MessageBlock[] messages,
+                              BiFunction<BilinearGroup,Integer,MultiMessageStructurePreservingSignatureScheme> schemeSetupFunction,
+                              ParameterStore store,
+                              String mainClassName) {
+
+        // print the config
+        PrintBenchmarkUtils.prettyPrintConfig(config, BenchmarkMode.ColdStart);
+
+        this.config = config;
+        this.store = store;
+        this.mainClassName = mainClassName;
+        this.variantResults = new LinkedHashMap<>();
+
+        // pre-generate everything the probes may load
+        MultiMessageStructurePreservingSignatureScheme scheme
+                = schemeSetupFunction.apply(config.getTimerBGroup(), config.getMessageLength());
+        SignatureKeyPair keyPair = scheme.generateKeyPair(config.getMessageLength());
+        store.save(scheme, keyPair, messages[0]);
+
+        autoRunBenchmark();
+    }
+
+
+    public BenchmarkConfig getConfig() {
+        return config;
+    }
+
+    public LinkedHashMap<String, LinkedHashMap<String, BenchmarkTimes>> getVariantResults() {
+        return variantResults;
+    }
+
+
+    /**
+     * launches the probes of each variant, recording the AppCDS archive right before its variant
+     */
+    private void autoRunBenchmark() {
+
+        runVariant("generate", Collections.emptyList(), false);
+        runVariant("load", Collections.emptyList(), true);
+        runVariant("load (CDS off)", Collections.singletonList("-Xshare:off"), true);
+
+        Path archive = store.getDirectory().resolve(CDS_ARCHIVE_FILE);
+        String skipReason = recordArchive(archive);
+
+        if(skipReason == null) {
+            runVariant("load (AppCDS)", Collections.singletonList("-XX:SharedArchiveFile=" + archive), true);
+        }
+        else {
+            System.out.println(PrintBenchmarkUtils.padString(
+                    String.format("[SKIP][COLD-START] load (AppCDS) :: %s", skipReason)));
+        }
+
+        printResults();
+    }
+
+    /**
+     * records an AppCDS archive to {@param archive} from a single load run, dumping all classes it loaded on exit.
+     * Returns why the archive could not be recorded, or null if it was.
+     */
+    private String recordArchive(Path archive) {
+
+        // the JVM refuses to archive classes loaded from (non-empty) directories
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            if(!entry.endsWith(".jar")) {
+                return String.format("AppCDS needs a classpath of jars only, but it contains %s", entry);
+            }
+        }
+
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("[START][COLD-START] recording AppCDS archive %s", archive)));
+
+        try {
+            Files.deleteIfExists(archive);
+            launchProbe(Collections.singletonList("-XX:ArchiveClassesAtExit=" + archive), true);
+        }
+        catch (IOException | IllegalStateException e) {
+            return String.format("recording the archive failed: %s", e.getMessage());
+        }
+
+        return Files.exists(archive) ? null : "the recording run did not write an archive";
+    }
+
+    /**
+     * launches the pre-warm and measured probes of a single variant and stores their times
+     * {@param jvmOptions} are passed to each launched JVM
+     */
+    private void runVariant(String variant, List<String> jvmOptions, boolean loadFromDisk) {
+
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("[START][COLD-START] %s :: %s launches", variant, config.getRunIterations())));
+
+        // pre-warm the file system caches, without measuring
+        for (int i = 0; i < config.getPrewarmIterations(); i++) {
+            launchProbe(jvmOptions, loadFromDisk);
+        }
+
+        long[][] samples = new long[ColdStartProbe.PHASE_NAMES.length][config.getRunIterations()];
+
+        for (int i = 0; i < config.getRunIterations(); i++) {
+            LinkedHashMap<String,Long> times = launchProbe(jvmOptions, loadFromDisk);
+
+            for (int phase = 0; phase < ColdStartProbe.PHASE_NAMES.length; phase++) {
+                samples[phase][i] = times.get(ColdStartProbe.PHASE_NAMES[phase]);
+            }
+        }
+
+        LinkedHashMap<String,BenchmarkTimes> results = new LinkedHashMap<>();
+        for (int phase = 0; phase < ColdStartProbe.PHASE_NAMES.length; phase++) {
+            results.put(ColdStartProbe.PHASE_NAMES[phase], BenchmarkTimes.fromSamples(samples[phase]));
+        }
+
+        variantResults.put(variant, results);
+    }
+
+    /**
+     * runs a probe in a new JVM and returns the times it reported
+     */
+    private LinkedHashMap<String,Long> launchProbe(List<String> jvmOptions, boolean loadFromDisk) {
+
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(mainClassName);
+        command.addAll(Arrays.asList(BenchmarkMode.ColdStartProbe.getArgument(),
+                config.getSchemeName(),
+                String.valueOf(config.getMessageLength()),
+                "0", "0",
+                store.getDirectory().toString(),
+                (loadFromDisk) ? "load" : "generate"));
+
+        try {
+            Process process = new ProcessBuilder(command)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+
+            // keep all output in case the probe fails
+            StringBuilder output = new StringBuilder();
+            String resultLine = null;
+
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    output.append(line).append(System.lineSeparator());
+                    if(line.startsWith(ColdStartProbe.RESULT_PREFIX)) {
+                        resultLine = line;
+                    }
+                }
+            }
+
+            int exitCode = process.waitFor();
+
+            if(exitCode != 0 || resultLine == null) {
+                throw new IllegalStateException(String.format("cold-start probe failed (exit code %s):%n%s",
+                        exitCode, output));
+            }
+
+            return ColdStartProbe.parseResult(resultLine);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for cold-start probe", e);
+        }
+    }
+
+    private void printResults() {
+
+        for (Map.Entry<String,LinkedHashMap<String,BenchmarkTimes>> variant : variantResults.entrySet()) {
+            PrintBenchmarkUtils.printSeparator();
+            System.out.println(PrintBenchmarkUtils.padString(
+                    String.format("[DONE][COLD-START] %s [%s] benchmark...", variant.getKey(), config.getSchemeName())));
+
+            variant.getValue().forEach((phase, times) -> {
+                System.out.println(PrintBenchmarkUtils.padString(String.format("*** %s", phase)));
+                System.out.println(times.getPrettyString());
+            });
+        }
+
+        PrintBenchmarkUtils.printSeparator();
+        PrintBenchmarkUtils.printSeparator();
+    }
+
+}
@@ -0,0 +1,136 @@
+package spsbenchmark;
+
+import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
+import org.cryptimeleon.craco.sig.MultiMessageStructurePreservingSignatureScheme;
+import org.cryptimeleon.craco.sig.Signature;
+import org.cryptimeleon.craco.sig.SignatureKeyPair;
+import org.cryptimeleon.math.structures.groups.elliptic.BilinearGroup;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Measures the first signature and verification of a freshly started JVM.
+ * Meant to be launched as a child process by {@link ColdStartBenchmark}, which parses the single result line
+ * this probe prints.
+ *
+ * Either regenerates public parameters and keys or loads them from a {@link ParameterStore}.
+ * Both variants set up their bilinear group within the setup phase: regenerating constructs a new group,
+ * loading restores it with the scheme.
+ * The message is always loaded from the store, so that both variants sign the same message.
+ */
+public class ColdStartProbe {
+
+    /**
+     * marks the line holding the results
+     */
+    public static final String RESULT_PREFIX = "[COLD-START-RESULT]";
+
+    /**
+     * the measured phases, in order. The last two are the totals since the JVM started
+     */
+    public static final String[] PHASE_NAMES = {"jvmStartup", "setup", "keyGen", "message", "sign", "verify",
+            "timeToFirstSign", "timeToFirstVerify"};
+
+    /**
+     * Stores the time (in nanoseconds) of each phase
+     */
+    private final LinkedHashMap<String,Long> phaseTimes;
+
+
+    /**
+     * Runs setup, keyGen, sign and verify once each and prints the time every phase took.
+     * If {@param loadFromDisk} is set, the scheme and keys are restored from {@param store}. Otherwise they are
+     * generated by {@param schemeSetupFunction} using a group constructed by {@param bGroupFactory}.
+     * Only the message length of {@param config} is used; its groups are not set up for probes.
+     */
+    public ColdStartProbe(BenchmarkConfig config,
+                          Supplier<BilinearGroup> bGroupFactory,
+                          BiFunction<BilinearGroup,Integer,MultiMessageStructurePreservingSignatureScheme> schemeSetupFunction,
+                          ParameterStore store,
+                          boolean loadFromDisk) {
+
+        this.phaseTimes = new LinkedHashMap<>();
+
+        // everything that happened before we got here (class loading, argument parsing)
+        long jvmStartup = TimeUnit.MILLISECONDS.toNanos(ManagementFactory.getRuntimeMXBean().getUptime());
+        phaseTimes.put("jvmStartup", jvmStartup);
+
+        // setup
+        long refTime = System.nanoTime();
+        MultiMessageStructurePreservingSignatureScheme scheme = (loadFromDisk) ? store.loadScheme()
+                : schemeSetupFunction.apply(bGroupFactory.get(), config.getMessageLength());
+        scheme.getRepresentation();
+        refTime = measurePhase("setup", refTime);
+
+        // keyGen
+        SignatureKeyPair keyPair = (loadFromDisk) ? store.loadKeyPair(scheme)
+                : scheme.generateKeyPair(config.getMessageLength());
+        keyPair.getSigningKey().getRepresentation();
+        keyPair.getVerificationKey().getRepresentation();
+        refTime = measurePhase("keyGen", refTime);
+
+        // message
+        MessageBlock message = store.loadMessage(scheme);
+        refTime = measurePhase("message", refTime);
+
+        // first signature
+        Signature sigma = scheme.sign(keyPair.getSigningKey(), message);
+        sigma.getRepresentation();
+        refTime = measurePhase("sign", refTime);
+
+        // first verification
+        if(!scheme.verify(message, sigma, keyPair.getVerificationKey())) {
+            throw new IllegalStateException("first signature did not verify");
+        }
+        measurePhase("verify", refTime);
+
+        // totals
+        phaseTimes.put("timeToFirstSign", jvmStartup
+                + phaseTimes.get("setup") + phaseTimes.get("keyGen") + phaseTimes.get("message")
+                + phaseTimes.get("sign"));
+        phaseTimes.put("timeToFirstVerify", phaseTimes.get("timeToFirstSign") + phaseTimes.get("verify"));
+
+        System.out.println(formatResult());
+    }
+
+    public LinkedHashMap<String, Long> getPhaseTimes() {
+        return phaseTimes;
+    }
+
+    /**
+     * stores the time passed since {@param refTime} for {@param phase} and returns the current time
+     */
+    private long measurePhase(String phase, long refTime) {
+        long finishTime = System.nanoTime();
+        phaseTimes.put(phase, finishTime - refTime);
+        return finishTime;
+    }
+
+    /**
+     * gives the result line, e.g. {@code [COLD-START-RESULT] jvmStartup=123 setup=456 ...}
+     */
+    private String formatResult() {
+        StringBuilder result = new StringBuilder(RESULT_PREFIX);
+        phaseTimes.forEach((phase, time) -> result.append(' ').append(phase).append('=').append(time));
+        return result.toString();
+    }
+
+    /**
+     * parses a line printed by a probe back into the times of each phase
+     */
+    public static LinkedHashMap<String,Long> parseResult(String line) {
+        LinkedHashMap<String,Long> times = new LinkedHashMap<>();
+
+        for (String entry : line.substring(RESULT_PREFIX.length()).trim().split(" ")) {
+            String[] pair = entry.split("=");
+            times.put(pair[0], Long.parseLong(pair[1]));
+        }
+
+        return times;
+    }
+
+}
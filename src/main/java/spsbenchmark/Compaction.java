@@ -0,0 +1,40 @@
+package spsbenchmark;
+
+import org.cryptimeleon.craco.sig.MultiMessageStructurePreservingSignatureScheme;
+import org.cryptimeleon.craco.sig.Signature;
+import org.cryptimeleon.craco.sig.SignatureKeyPair;
+import org.cryptimeleon.craco.sig.SigningKey;
+import org.cryptimeleon.craco.sig.VerificationKey;
+
+/**
+ * Shrinks the keys and signatures a scheme returns to what is needed to use them.
+ *
+ * Freshly returned keys and signatures hold lazy group elements, which may keep the expressions they were
+ * computed from. Compacting an object computes it and restores a copy from its representation, so that the
+ * copy only holds concrete group elements.
+ */
+public class Compaction {
+
+    public static VerificationKey compactVerificationKey(MultiMessageStructurePreservingSignatureScheme scheme,
+                                                         VerificationKey verificationKey) {
+        return scheme.restoreVerificationKey(verificationKey.getRepresentation());
+    }
+
+    public static SigningKey compactSigningKey(MultiMessageStructurePreservingSignatureScheme scheme,
+                                               SigningKey signingKey) {
+        return scheme.restoreSigningKey(signingKey.getRepresentation());
+    }
+
+    public static SignatureKeyPair<VerificationKey, SigningKey> compactKeyPair(
+            MultiMessageStructurePreservingSignatureScheme scheme,
+            SignatureKeyPair<? extends VerificationKey, ? extends SigningKey> keyPair) {
+        return new SignatureKeyPair<>(compactVerificationKey(scheme, keyPair.getVerificationKey()),
+                compactSigningKey(scheme, keyPair.getSigningKey()));
+    }
+
+    public static Signature compactSignature(MultiMessageStructurePreservingSignatureScheme scheme,
+                                             Signature signature) {
+        return scheme.restoreSignature(signature.getRepresentation());
+    }
+
+}
@@ -0,0 +1,233 @@
+package spsbenchmark;
+
+import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
+import org.cryptimeleon.craco.sig.MultiMessageStructurePreservingSignatureScheme;
+import org.cryptimeleon.craco.sig.Signature;
+import org.cryptimeleon.craco.sig.SignatureKeyPair;
+import org.cryptimeleon.math.structures.groups.Group;
+import org.cryptimeleon.math.structures.groups.elliptic.BilinearGroup;
+
+import java.util.LinkedHashMap;
+import java.util.Random;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Measures the cost of encoding application messages (byte string attributes) into the message group of a scheme
+ * (see {@link MessageEncoder}) next to signing and verifying the encoded messages.
+ *
+ * Each of the {@code config.runIterations} messages has {@code config.messageLength} attributes of
+ * {@code payloadSize} bytes, drawn from {@code distinctValues} values.
+ * Encoding is measured without a cache (hashing every attribute), with a cache of {@code cacheCapacity}
+ * encodings (starting empty) and as one batch of all messages.
+ */
+public class EncodingBenchmark {
+
+    /**
+     * seeds the generation of the payloads
+     */
+    private static final long PAYLOAD_SEED = 42;
+
+
+    // these are given on start up
+
+    /**
+     * defines the shared parameters of the benchmark
+     */
+    private final BenchmarkConfig config;
+
+    private final Function<BilinearGroup,Group> messageGroup;
+
+    private final UnaryOperator<MessageBlock> messageWrapper;
+
+    private final BiFunction<BilinearGroup,Integer,MultiMessageStructurePreservingSignatureScheme> schemeSetupFunction;
+
+    private final int payloadSize;
+
+    private final int distinctValues;
+
+    private final int cacheCapacity;
+
+
+    // these are calculated during the benchmark
+
+    private final byte[][][] payloads;
+
+    /**
+     * Stores the results of the benchmark times for each step
+     */
+    private final LinkedHashMap<String,BenchmarkTimes> benchmarkTimeResults;
+
+    /**
+     * the time spent encoding all messages as one batch, per message (in nanoseconds)
+     */
+    private double avgBatchTime;
+
+    private double cacheHitRate;
+
+    private int failedVerifications;
+
+
+    /**
+     * Sets up an encoding benchmark for the scheme generated by {@param schemeSetupFunction}.
+     * Payloads are encoded into {@param messageGroup} instead of drawing random group elements
+     */
+    public EncodingBenchmark(BenchmarkConfig config,
+                             Function<BilinearGroup,Group> messageGroup,
+                             UnaryOperator<MessageBlock> messageWrapper,
+                             BiFunction<BilinearGroup,Integer,MultiMessageStructurePreservingSignatureScheme> schemeSetupFunction,
+                             int payloadSize,
+                             int distinctValues,
+                             int cacheCapacity) {
+
+        // print the config
+        PrintBenchmarkUtils.prettyPrintConfig(config, BenchmarkMode.Encoding);
+
+        this.config = config;
+        this.messageGroup = messageGroup;
+        this.messageWrapper = messageWrapper;
+        this.schemeSetupFunction = schemeSetupFunction;
+        this.payloadSize = payloadSize;
+        this.distinctValues = distinctValues;
+        this.cacheCapacity = cacheCapacity;
+
+        this.payloads = MessageGenerator.preparePayloads(config.getRunIterations(), config.getMessageLength(),
+                payloadSize, distinctValues, new Random(PAYLOAD_SEED));
+
+        this.benchmarkTimeResults = new LinkedHashMap<>();
+
+        autoRunBenchmark();
+    }
+
+
+    public BenchmarkConfig getConfig() {
+        return config;
+    }
+
+    public BenchmarkTimes getBenchmarkTimeResult(String operation) {
+        return benchmarkTimeResults.get(operation);
+    }
+
+    public LinkedHashMap<String, BenchmarkTimes> getBenchmarkTimeResults() {
+        return benchmarkTimeResults;
+    }
+
+    public double getAvgBatchTime() {
+        return avgBatchTime;
+    }
+
+    public double getCacheHitRate() {
+        return cacheHitRate;
+    }
+
+    public int getFailedVerifications() {
+        return failedVerifications;
+    }
+
+
+    private void autoRunBenchmark() {
+
+        BilinearGroup bGroup = config.getTimerBGroup();
+        Group targetGroup = messageGroup.apply(bGroup);
+
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("[START][ENCODING] [%s] %s-byte attributes from %s values :: cache capacity %s",
+                        config.getSchemeName(), payloadSize, distinctValues, cacheCapacity)));
+
+        MultiMessageStructurePreservingSignatureScheme scheme
+                = schemeSetupFunction.apply(bGroup, config.getMessageLength());
+        SignatureKeyPair keyPair = scheme.generateKeyPair(config.getMessageLength());
+
+        MessageBlock[] messages = new MessageBlock[payloads.length];
+        Signature[] signatures = new Signature[payloads.length];
+
+        // encoding without and with a cache
+        MessageEncoder uncachedEncoder = MessageEncoder.forGroup(bGroup, targetGroup, 0);
+        measureStep("encode (uncached)", i -> uncachedEncoder.encode(payloads[i]));
+
+        // pre-warm on a separate cache, so that the measured one starts empty and only counts measured lookups
+        MessageEncoder prewarmEncoder = MessageEncoder.forGroup(bGroup, targetGroup, cacheCapacity);
+        MessageEncoder cachedEncoder = MessageEncoder.forGroup(bGroup, targetGroup, cacheCapacity);
+        measureStep("encode (cached)",
+                i -> prewarmEncoder.encode(payloads[i]),
+                i -> messages[i] = messageWrapper.apply(cachedEncoder.encode(payloads[i])));
+        cacheHitRate = cachedEncoder.getHitRate();
+
+        // all messages in one batch, on a fresh cache
+        MessageEncoder batchEncoder = MessageEncoder.forGroup(bGroup, targetGroup, cacheCapacity);
+        long refTime = System.nanoTime();
+        batchEncoder.encodeAll(payloads);
+        avgBatchTime = (double) (System.nanoTime() - refTime) / payloads.length;
+
+        // sign and verify the encoded messages
+        measureStep("sign", i -> {
+            signatures[i] = scheme.sign(keyPair.getSigningKey(), messages[i]);
+            signatures[i].getRepresentation();
+        });
+
+        // the measured iterations overwrite every outcome of the pre-warm iterations, so only they are counted
+        boolean[] valid = new boolean[payloads.length];
+        measureStep("verify", i -> valid[i] = scheme.verify(messages[i], signatures[i], keyPair.getVerificationKey()));
+        for (boolean outcome : valid) {
+            if(!outcome) {
+                failedVerifications++;
+            }
+        }
+
+        printResults();
+    }
+
+    /**
+     * pre-warms and then measures {@param step} for all iterations, storing the results as {@param stepName}
+     */
+    private void measureStep(String stepName, IntConsumer step) {
+        measureStep(stepName, step, step);
+    }
+
+    /**
+     * pre-warms with {@param prewarmStep} and then measures {@param step} for all iterations,
+     * storing the results as {@param stepName}
+     */
+    private void measureStep(String stepName, IntConsumer prewarmStep, IntConsumer step) {
+        benchmarkTimeResults.put(stepName, BenchmarkTimes.measure(
+                config.getPrewarmIterations(), config.getRunIterations(), prewarmStep, step));
+    }
+
+    private void printResults() {
+
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("[DONE][ENCODING] [%s] benchmark... failed verifications: %s",
+                        config.getSchemeName(), failedVerifications)));
+
+        benchmarkTimeResults.forEach((step, times) -> {
+            PrintBenchmarkUtils.printSeparator();
+            System.out.println(PrintBenchmarkUtils.padString(String.format("*** %s", step)));
+            System.out.println(times.getPrettyString());
+        });
+
+        double signTime = benchmarkTimeResults.get("sign").getAvgTime();
+
+        PrintBenchmarkUtils.printSeparator();
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("*** Encoding share of encode + sign :: uncached %.2f%%  |  cached %.2f%%",
+                        100 * encodingShare("encode (uncached)", signTime),
+                        100 * encodingShare("encode (cached)", signTime))));
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("*** Cache :: hit rate %.2f%%  |  batch encoding avg %s per message",
+                        100 * cacheHitRate, BenchmarkTimes.formatTimeInMs(avgBatchTime))));
+
+        PrintBenchmarkUtils.printSeparator();
+        PrintBenchmarkUtils.printSeparator();
+    }
+
+    /**
+     * the fraction of encoding and signing a message spent in the encoding step {@param encodeStep}
+     */
+    private double encodingShare(String encodeStep, double signTime) {
+        double encodeTime = benchmarkTimeResults.get(encodeStep).getAvgTime();
+        return encodeTime / (encodeTime + signTime);
+    }
+
+}
@@ -0,0 +1,252 @@
+package spsbenchmark;
+
+import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
+import org.cryptimeleon.craco.sig.MultiMessageStructurePreservingSignatureScheme;
+import org.cryptimeleon.craco.sig.SignatureKeyPair;
+import org.cryptimeleon.math.serialization.Representable;
+import org.cryptimeleon.math.serialization.converter.JSONConverter;
+import org.cryptimeleon.math.structures.groups.Group;
+import org.cryptimeleon.math.structures.groups.elliptic.BilinearGroup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Measures the retained heap size of the public parameters, verification keys, signing keys and signatures
+ * of a scheme, for message lengths doubling from 1 up to {@code config.messageLength}.
+ *
+ * Each object is measured in three states:
+ * as returned by the scheme (lazy), after computing all of its group elements (computed)
+ * and after restoring it from its representation (compacted, see {@link Compaction}).
+ * Public parameters are not compacted, as restoring them would also restore a new bilinear group.
+ * The size of an object is the growth of the used heap (after garbage collection) while holding
+ * {@code copies} independent copies of it, divided by {@code copies}.
+ */
+public class FootprintBenchmark {
+
+    public static final String[] OBJECT_NAMES = {"public parameters", "verification key", "signing key", "signature"};
+
+    public static final String[] STATE_NAMES = {"lazy", "computed", "compacted"};
+
+    /**
+     * how often the garbage collector is asked to run before reading the used heap
+     */
+    private static final int GC_ROUNDS = 3;
+
+
+    // these are given on start up
+
+    /**
+     * defines the shared parameters of the benchmark
+     */
+    private final BenchmarkConfig config;
+
+    private final Function<BilinearGroup,Group> messageGroup;
+
+    private final UnaryOperator<MessageBlock> messageWrapper;
+
+    private final BiFunction<BilinearGroup,Integer,MultiMessageStructurePreservingSignatureScheme> schemeSetupFunction;
+
+    /**
+     * the number of copies held per measurement
+     */
+    private final int copies;
+
+
+    // these are calculated during the benchmark
+
+    private final MemoryMXBean memoryBean;
+
+    private final JSONConverter converter;
+
+    /**
+     * Stores the retained bytes per copy for each message length and object, indexed by state
+     */
+    private final TreeMap<Integer,LinkedHashMap<String,double[]>> footprintResults;
+
+    /**
+     * Stores the length of the JSON encoding for each message length and object
+     */
+    private final TreeMap<Integer,LinkedHashMap<String,Integer>> serializedSizes;
+
+
+    /**
+     * Sets up the footprint measurement of the scheme generated by {@param schemeSetupFunction},
+     * holding {@param copies} copies of each object per measurement
+     */
+    public FootprintBenchmark(BenchmarkConfig config,
+                              Function<BilinearGroup,Group> messageGroup,
+                              UnaryOperator<MessageBlock> messageWrapper,
+                              BiFunction<BilinearGroup,Integer,MultiMessageStructurePreservingSignatureScheme> schemeSetupFunction,
+                              int copies) {
+
+        if(copies < 1) {
+            throw new IllegalArgumentException(String.format("copies: needs at least one copy, got %s", copies));
+        }
+
+        // print the config
+        PrintBenchmarkUtils.prettyPrintConfig(config, BenchmarkMode.Footprint);
+
+        this.config = config;
+        this.messageGroup = messageGroup;
+        this.messageWrapper = messageWrapper;
+        this.schemeSetupFunction = schemeSetupFunction;
+        this.copies = copies;
+
+        this.memoryBean = ManagementFactory.getMemoryMXBean();
+        this.converter = new JSONConverter();
+
+        this.footprintResults = new TreeMap<>();
+        this.serializedSizes = new TreeMap<>();
+
+        autoRunBenchmark();
+    }
+
+
+    public BenchmarkConfig getConfig() {
+        return config;
+    }
+
+    public TreeMap<Integer, LinkedHashMap<String, double[]>> getFootprintResults() {
+        return footprintResults;
+    }
+
+    public TreeMap<Integer, LinkedHashMap<String, Integer>> getSerializedSizes() {
+        return serializedSizes;
+    }
+
+
+    private void autoRunBenchmark() {
+
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("[START][FOOTPRINT] %s copies per measurement", copies)));
+
+        for (int messageLength : PrintBenchmarkUtils.doublingSequence(config.getMessageLength())) {
+
+            MultiMessageStructurePreservingSignatureScheme scheme
+                    = schemeSetupFunction.apply(config.getTimerBGroup(), messageLength);
+            SignatureKeyPair keyPair = scheme.generateKeyPair(messageLength);
+
+            LinkedHashMap<String,double[]> objectResults = new LinkedHashMap<>();
+
+            // restoring public parameters also restores a new bilinear group, which the lazy copies share,
+            // so there is no compacted number for them
+            objectResults.put(OBJECT_NAMES[0], measureStates(
+                    i -> schemeSetupFunction.apply(config.getTimerBGroup(), messageLength),
+                    null));
+
+            objectResults.put(OBJECT_NAMES[1], measureStates(
+                    i -> scheme.generateKeyPair(messageLength).getVerificationKey(),
+                    vk -> Compaction.compactVerificationKey(scheme, vk)));
+
+            objectResults.put(OBJECT_NAMES[2], measureStates(
+                    i -> scheme.generateKeyPair(messageLength).getSigningKey(),
+                    sk -> Compaction.compactSigningKey(scheme, sk)));
+
+            // the messages are allocated before measuring, so they do not count towards the signatures
+            MessageBlock[] messages = Arrays.stream(MessageGenerator.prepareMessages(
+                            messageGroup.apply(config.getTimerBGroup()), copies, messageLength))
+                    .map(messageWrapper)
+                    .toArray(MessageBlock[]::new);
+
+            objectResults.put(OBJECT_NAMES[3], measureStates(
+                    i -> scheme.sign(keyPair.getSigningKey(), messages[i]),
+                    sigma -> Compaction.compactSignature(scheme, sigma)));
+
+            footprintResults.put(messageLength, objectResults);
+
+            LinkedHashMap<String,Integer> sizes = new LinkedHashMap<>();
+            sizes.put(OBJECT_NAMES[0], serializedSize(scheme));
+            sizes.put(OBJECT_NAMES[1], serializedSize(keyPair.getVerificationKey()));
+            sizes.put(OBJECT_NAMES[2], serializedSize(keyPair.getSigningKey()));
+            sizes.put(OBJECT_NAMES[3], serializedSize(scheme.sign(keyPair.getSigningKey(), messages[0])));
+            serializedSizes.put(messageLength, sizes);
+        }
+
+        printResults();
+    }
+
+    /**
+     * measures the copies created by {@param create} in all states, using {@param compact} to compact them.
+     * If {@param compact} is null, the compacted state is not measured (NaN)
+     */
+    private <T> double[] measureStates(IntFunction<T> create, Function<T,?> compact) {
+        return new double[] {
+                measureRetained(create::apply),
+                measureRetained(i -> {
+                    T copy = create.apply(i);
+                    GroupElementCollector.computeAll(copy);
+                    return copy;
+                }),
+                (compact == null) ? Double.NaN : measureRetained(i -> compact.apply(create.apply(i)))
+        };
+    }
+
+    /**
+     * gives the growth of the used heap per copy while holding {@code copies} copies created by {@param create}
+     */
+    private double measureRetained(IntFunction<?> create) {
+        Object[] held = new Object[copies];
+
+        long before = usedHeapAfterGc();
+        for (int i = 0; i < copies; i++) {
+            held[i] = create.apply(i);
+        }
+        long after = usedHeapAfterGc();
+
+        // keep the copies reachable until after the second reading
+        if(held[copies - 1] == null) {
+            throw new IllegalStateException("no copy was created");
+        }
+
+        return (double) (after - before) / copies;
+    }
+
+    private long usedHeapAfterGc() {
+        for (int i = 0; i < GC_ROUNDS; i++) {
+            memoryBean.gc();
+        }
+        return memoryBean.getHeapMemoryUsage().getUsed();
+    }
+
+    private int serializedSize(Representable object) {
+        return converter.serialize(object.getRepresentation()).getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private void printResults() {
+
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("[DONE][FOOTPRINT] [%s] benchmark... retained bytes per copy", config.getSchemeName())));
+
+        footprintResults.forEach((messageLength, objectResults) -> {
+            PrintBenchmarkUtils.printSeparator();
+
+            objectResults.forEach((object, states) -> {
+                StringBuilder line = new StringBuilder(
+                        String.format("*** messageLength %s :: %s", messageLength, object));
+
+                for (int state = 0; state < STATE_NAMES.length; state++) {
+                    line.append((Double.isNaN(states[state]))
+                            ? String.format("  |  %s: n/a", STATE_NAMES[state])
+                            : String.format("  |  %s: %.0f B", STATE_NAMES[state], states[state]));
+                }
+
+                line.append(String.format("  |  JSON: %s B", serializedSizes.get(messageLength).get(object)));
+
+                System.out.println(PrintBenchmarkUtils.padString(line.toString()));
+            });
+        });
+
+        PrintBenchmarkUtils.printSeparator();
+        PrintBenchmarkUtils.printSeparator();
+    }
+
+}
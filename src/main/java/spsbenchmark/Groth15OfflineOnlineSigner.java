@@ -0,0 +1,266 @@
+package spsbenchmark;
+
+import org.cryptimeleon.craco.common.plaintexts.GroupElementPlainText;
+import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
+import org.cryptimeleon.math.structures.groups.GroupElement;
+import org.cryptimeleon.math.structures.groups.elliptic.BilinearGroup;
+import org.cryptimeleon.math.structures.groups.elliptic.BilinearMap;
+import org.cryptimeleon.math.structures.rings.zn.Zn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Groth15 SPS (signing G_1 elements) with signing split into a message independent offline part
+ * and a message dependent online part.
+ *
+ * The craco implementation does not expose the randomness of its signatures,
+ * so this follows the scheme directly: for a signing key v, verification key V = H^v and randomness r,
+ * a signature is R = H^r, S = (Y * G^v)^(1/r) and T_i = (Y^v * M_i)^(1/r).
+ * Only T_i depends on the message. The offline part computes R, S and W = (Y^v)^(1/r), so that
+ * the online part only computes T_i = W * M_i^(1/r).
+ */
+public class Groth15OfflineOnlineSigner {
+
+    private final BilinearGroup bGroup;
+
+    private final int messageLength;
+
+    // public parameters
+
+    /**
+     * generator of G_1
+     */
+    private final GroupElement groupElementG;
+
+    /**
+     * generator of G_2
+     */
+    private final GroupElement groupElementH;
+
+    private final GroupElement groupElementY;
+
+    // keys
+
+    private final Zn.ZnElement signingKey;
+
+    private final GroupElement verificationKey;
+
+    /**
+     * Y^v and Y * G^v. Depend only on the key, so they are computed once
+     */
+    private final GroupElement groupElementYv;
+
+    private final GroupElement groupElementYGv;
+
+    /**
+     * e(Y,H) * e(G,V) and e(Y,V), the message independent sides of the verification equations
+     */
+    private final GroupElement verificationTargetS;
+
+    private final GroupElement verificationTargetT;
+
+
+    /**
+     * generates public parameters and a key pair for messages of length {@param messageLength} in {@param bGroup}
+     */
+    public Groth15OfflineOnlineSigner(BilinearGroup bGroup, int messageLength) {
+        this.bGroup = bGroup;
+        this.messageLength = messageLength;
+
+        this.groupElementG = bGroup.getG1().getGenerator().computeSync();
+        this.groupElementH = bGroup.getG2().getGenerator().computeSync();
+        this.groupElementY = bGroup.getG1().getUniformlyRandomNonNeutral().computeSync();
+
+        this.signingKey = bGroup.getZn().getUniformlyRandomElement();
+        this.verificationKey = groupElementH.pow(signingKey).computeSync();
+        this.groupElementYv = groupElementY.pow(signingKey).computeSync();
+        this.groupElementYGv = groupElementY.op(groupElementG.pow(signingKey)).computeSync();
+
+        BilinearMap bMap = bGroup.getBilinearMap();
+        this.verificationTargetS = bMap.apply(groupElementY, groupElementH)
+                .op(bMap.apply(groupElementG, verificationKey)).computeSync();
+        this.verificationTargetT = bMap.apply(groupElementY, verificationKey).computeSync();
+    }
+
+    public BilinearGroup getBilinearGroup() {
+        return bGroup;
+    }
+
+    public int getMessageLength() {
+        return messageLength;
+    }
+
+
+    /**
+     * the offline part of signing: draws fresh randomness and computes everything independent of the message
+     */
+    public Presignature presign() {
+        Zn.ZnElement r = bGroup.getZn().getUniformlyRandomUnit();
+        Zn.ZnElement rInv = r.inv();
+
+        GroupElement sigmaR = groupElementH.pow(r).computeSync();
+        GroupElement sigmaS = groupElementYGv.pow(rInv).computeSync();
+        GroupElement w = groupElementYv.pow(rInv).computeSync();
+
+        return new Presignature(rInv, sigmaR, sigmaS, w);
+    }
+
+    /**
+     * the online part of signing: completes {@param presignature} to a signature on {@param message}.
+     * Each presignature must only be used once.
+     */
+    public Groth15Signature signOnline(Presignature presignature, MessageBlock message) {
+        GroupElement[] sigmaT = new GroupElement[messageLength];
+
+        for (int i = 0; i < messageLength; i++) {
+            GroupElement messageElement = ((GroupElementPlainText) message.get(i)).get();
+            sigmaT[i] = presignature.w.op(messageElement.pow(presignature.rInv)).computeSync();
+        }
+
+        return new Groth15Signature(presignature.sigmaR, presignature.sigmaS, sigmaT);
+    }
+
+    /**
+     * signs {@param message} without precomputation
+     */
+    public Groth15Signature sign(MessageBlock message) {
+        return signOnline(presign(), message);
+    }
+
+    /**
+     * checks e(S,R) = e(Y,H) * e(G,V) and e(T_i,R) * e(M_i^(-1),H) = e(Y,V) for all i
+     */
+    public boolean verify(MessageBlock message, Groth15Signature signature) {
+        return verifyEquations(message, signature, 0, messageLength + 1);
+    }
+
+    /**
+     * verifies like {@link #verify}, but splits the verification equations into {@param chunks} ranges,
+     * which are checked concurrently on {@param executor}
+     */
+    public boolean verifyParallel(MessageBlock message, Groth15Signature signature,
+                                  ExecutorService executor, int chunks) {
+
+        int equations = messageLength + 1;
+        chunks = Math.min(chunks, equations);
+
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int c = 0; c < chunks; c++) {
+            int from = c * equations / chunks;
+            int to = (c + 1) * equations / chunks;
+            tasks.add(() -> verifyEquations(message, signature, from, to));
+        }
+
+        try {
+            for (Future<Boolean> result : executor.invokeAll(tasks)) {
+                if(!result.get()) {
+                    return false;
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while verifying", e);
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("verification failed", e.getCause());
+        }
+
+        return true;
+    }
+
+    /**
+     * checks the verification equations {@param from} (inclusive) to {@param to} (exclusive).
+     * Equation 0 is the one for S, equation i + 1 the one for T_i.
+     * The pairings of an equation are evaluated as one product in G_T and compared once against its target
+     */
+    private boolean verifyEquations(MessageBlock message, Groth15Signature signature, int from, int to) {
+        BilinearMap bMap = bGroup.getBilinearMap();
+
+        for (int equation = from; equation < to; equation++) {
+            GroupElement product;
+            GroupElement target;
+
+            if(equation == 0) {
+                product = bMap.apply(signature.sigmaS, signature.sigmaR);
+                target = verificationTargetS;
+            }
+            else {
+                int i = equation - 1;
+                GroupElement messageElement = ((GroupElementPlainText) message.get(i)).get();
+
+                // inverting M_i in G_1 is cheaper than inverting its pairing in G_T
+                product = bMap.apply(signature.sigmaT[i], signature.sigmaR)
+                        .op(bMap.apply(messageElement.inv(), groupElementH));
+                target = verificationTargetT;
+            }
+
+            if(!product.computeSync().equals(target)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * the message independent part of a signature, together with the inverted randomness
+     */
+    public static class Presignature {
+
+        private final Zn.ZnElement rInv;
+
+        private final GroupElement sigmaR;
+
+        private final GroupElement sigmaS;
+
+        /**
+         * (Y^v)^(1/r)
+         */
+        private final GroupElement w;
+
+        private Presignature(Zn.ZnElement rInv, GroupElement sigmaR, GroupElement sigmaS, GroupElement w) {
+            this.rInv = rInv;
+            this.sigmaR = sigmaR;
+            this.sigmaS = sigmaS;
+            this.w = w;
+        }
+    }
+
+    /**
+     * a Groth15 signature (R, S, T_1, ..., T_l)
+     */
+    public static class Groth15Signature {
+
+        private final GroupElement sigmaR;
+
+        private final GroupElement sigmaS;
+
+        private final GroupElement[] sigmaT;
+
+        private Groth15Signature(GroupElement sigmaR, GroupElement sigmaS, GroupElement[] sigmaT) {
+            this.sigmaR = sigmaR;
+            this.sigmaS = sigmaS;
+            this.sigmaT = sigmaT;
+        }
+
+        public GroupElement getSigmaR() {
+            return sigmaR;
+        }
+
+        public GroupElement getSigmaS() {
+            return sigmaS;
+        }
+
+        public GroupElement[] getSigmaT() {
+            return sigmaT;
+        }
+    }
+
+}
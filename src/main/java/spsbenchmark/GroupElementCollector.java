@@ -0,0 +1,96 @@
+package spsbenchmark;
+
+import org.cryptimeleon.math.structures.Element;
+import org.cryptimeleon.math.structures.Structure;
+import org.cryptimeleon.math.structures.groups.GroupElement;
+import org.cryptimeleon.math.structures.groups.elliptic.BilinearGroup;
+import org.cryptimeleon.math.structures.groups.elliptic.BilinearMap;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * Finds the group elements of a result (e.g. a key pair or signature) by walking the fields of its
+ * (craco/math) objects.
+ */
+public class GroupElementCollector {
+
+    /**
+     * gives all group elements reachable from {@param result}
+     */
+    public static List<GroupElement> collect(Object result) {
+        List<GroupElement> elements = new ArrayList<>();
+        collectGroupElements(result, elements, Collections.newSetFromMap(new IdentityHashMap<>()));
+        return elements;
+    }
+
+    /**
+     * computes all group elements reachable from {@param result} on the calling thread.
+     * Returns the number of elements found.
+     */
+    public static int computeAll(Object result) {
+        List<GroupElement> elements = collect(result);
+        elements.forEach(GroupElement::computeSync);
+        return elements.size();
+    }
+
+
+    /**
+     * adds all group elements reachable from {@param object} to {@param elements}
+     */
+    private static void collectGroupElements(Object object, List<GroupElement> elements, Set<Object> visited) {
+
+        if(object == null || !visited.add(object)) {
+            return;
+        }
+
+        if(object instanceof GroupElement) {
+            elements.add((GroupElement) object);
+        }
+        else if(object instanceof Structure || object instanceof Element
+                || object instanceof BilinearGroup || object instanceof BilinearMap) {
+            // groups, maps and ring elements (e.g. exponents) hold no elements of a result
+        }
+        else if(object instanceof Iterable) {
+            for (Object child : (Iterable<?>) object) {
+                collectGroupElements(child, elements, visited);
+            }
+        }
+        else if(object instanceof Map) {
+            for (Object child : ((Map<?,?>) object).values()) {
+                collectGroupElements(child, elements, visited);
+            }
+        }
+        else if(object instanceof Object[]) {
+            for (Object child : (Object[]) object) {
+                collectGroupElements(child, elements, visited);
+            }
+        }
+        else if(object.getClass().getName().startsWith("org.cryptimeleon.")) {
+            collectFields(object, elements, visited);
+        }
+    }
+
+    /**
+     * walks the non-static, non-primitive fields of {@param object} (including those of its superclasses)
+     */
+    private static void collectFields(Object object, List<GroupElement> elements, Set<Object> visited) {
+        for (Class<?> c = object.getClass(); c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if(Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+                    continue;
+                }
+
+                try {
+                    field.setAccessible(true);
+                    collectGroupElements(field.get(object), elements, visited);
+                }
+                catch (IllegalAccessException | RuntimeException e) {
+                    // inaccessible fields cannot hold elements we could compute anyway
+                }
+            }
+        }
+    }
+
+}
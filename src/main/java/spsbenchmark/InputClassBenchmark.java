@@ -0,0 +1,344 @@
+package spsbenchmark;
+
+import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
+import org.cryptimeleon.craco.sig.MultiMessageStructurePreservingSignatureScheme;
+import org.cryptimeleon.craco.sig.Signature;
+import org.cryptimeleon.craco.sig.SignatureKeyPair;
+import org.cryptimeleon.math.structures.groups.Group;
+import org.cryptimeleon.math.structures.groups.elliptic.BilinearGroup;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Times sign and verify on messages of each {@link MessageClass} and compares the latencies of each class
+ * against those of uniformly random messages.
+ *
+ * A difference shows that the scheme's running time depends on its input, which may be a timing side channel
+ * or a fast path. The classes are measured round-robin with the same key,
+ * so that drift over the runtime of the benchmark affects all classes alike.
+ * Differences are tested with a two-sided Mann-Whitney U test (normal approximation),
+ * as timing samples are rarely normally distributed.
+ */
+public class InputClassBenchmark {
+
+    /**
+     * the family-wise significance level. Each comparison is tested at this level divided by the number of
+     * comparisons (Bonferroni correction)
+     */
+    public static final double SIGNIFICANCE_LEVEL = 0.01;
+
+    /**
+     * the class every other class is compared against
+     */
+    public static final MessageClass BASELINE_CLASS = MessageClass.UniformRandom;
+
+    private static final String[] STEP_NAMES = {"sign", "verify"};
+
+
+    // these are given on start up
+
+    /**
+     * defines the shared parameters of the benchmark
+     */
+    private final BenchmarkConfig config;
+
+    /**
+     * the messages of each class
+     */
+    private final EnumMap<MessageClass,MessageBlock[]> messages;
+
+
+    // these are calculated during the benchmark
+
+    private final MultiMessageStructurePreservingSignatureScheme schemeInstance;
+
+    private final SignatureKeyPair keyPair;
+
+    /**
+     * Stores the latencies per class and step
+     */
+    private final EnumMap<MessageClass,HashMap<String,BenchmarkTimes>> classTimeResults;
+
+    /**
+     * Stores the median latency per class and step
+     */
+    private final EnumMap<MessageClass,HashMap<String,Double>> classMedians;
+
+    /**
+     * Stores the p-value of the comparison with the baseline per class and step
+     */
+    private final EnumMap<MessageClass,HashMap<String,Double>> classPValues;
+
+    private int failedVerifications;
+
+
+    /**
+     * Sets up an input class benchmark for the scheme generated by {@param schemeSetupFunction}
+     */
+    public InputClassBenchmark(BenchmarkConfig config,
+                               Function<BilinearGroup,Group> messageGroup,
+                               UnaryOperator<MessageBlock> messageWrapper,
+                               BiFunction<BilinearGroup,Integer,MultiMessageStructurePreservingSignatureScheme> schemeSetupFunction) {
+
+        if(config.getRunIterations() < 1) {
+            throw new IllegalArgumentException("iterations: comparing the classes needs at least one sample per class");
+        }
+
+        // print the config
+        PrintBenchmarkUtils.prettyPrintConfig(config, BenchmarkMode.InputClass);
+
+        this.config = config;
+
+        //instantiate the scheme and a single key pair used for all classes
+        this.schemeInstance = schemeSetupFunction.apply(config.getTimerBGroup(), config.getMessageLength());
+        this.keyPair = schemeInstance.generateKeyPair(config.getMessageLength());
+        keyPair.getSigningKey().getRepresentation();
+        keyPair.getVerificationKey().getRepresentation();
+
+        // prepare messages of each class
+        this.messages = new EnumMap<>(MessageClass.class);
+        for (MessageClass messageClass : MessageClass.values()) {
+            messages.put(messageClass, Arrays.stream(MessageGenerator.prepareMessages(
+                            messageGroup.apply(config.getTimerBGroup()),
+                            config.getRunIterations(),
+                            config.getMessageLength(),
+                            messageClass))
+                    .map(messageWrapper)
+                    .toArray(MessageBlock[]::new));
+        }
+
+        this.classTimeResults = new EnumMap<>(MessageClass.class);
+        this.classMedians = new EnumMap<>(MessageClass.class);
+        this.classPValues = new EnumMap<>(MessageClass.class);
+
+        autoRunBenchmark();
+    }
+
+
+    public BenchmarkConfig getConfig() {
+        return config;
+    }
+
+    public EnumMap<MessageClass, HashMap<String, BenchmarkTimes>> getClassTimeResults() {
+        return classTimeResults;
+    }
+
+    public EnumMap<MessageClass, HashMap<String, Double>> getClassMedians() {
+        return classMedians;
+    }
+
+    public EnumMap<MessageClass, HashMap<String, Double>> getClassPValues() {
+        return classPValues;
+    }
+
+    public int getFailedVerifications() {
+        return failedVerifications;
+    }
+
+
+    /**
+     * pre-warms, measures all classes and compares them against the baseline
+     */
+    private void autoRunBenchmark() {
+
+        String schemeName = schemeInstance.getClass().getSimpleName();
+
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("[START][INPUT-CLASS] (pre-warm) [%s] benchmark...", schemeName)));
+
+        measureClasses(config.getPrewarmIterations());
+
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("[START][INPUT-CLASS] [%s] benchmark...", schemeName)));
+
+        failedVerifications = 0;
+        EnumMap<MessageClass,long[][]> samples = measureClasses(config.getRunIterations());
+
+        // summarize and compare against the baseline
+        double correctedLevel = correctedSignificanceLevel();
+
+        for (MessageClass messageClass : MessageClass.values()) {
+            HashMap<String,BenchmarkTimes> times = new HashMap<>();
+            HashMap<String,Double> medians = new HashMap<>();
+            HashMap<String,Double> pValues = new HashMap<>();
+
+            for (int step = 0; step < STEP_NAMES.length; step++) {
+                long[] stepSamples = samples.get(messageClass)[step];
+
+                times.put(STEP_NAMES[step], BenchmarkTimes.fromSamples(stepSamples));
+                medians.put(STEP_NAMES[step], median(stepSamples));
+                pValues.put(STEP_NAMES[step], mannWhitneyPValue(stepSamples, samples.get(BASELINE_CLASS)[step]));
+            }
+
+            classTimeResults.put(messageClass, times);
+            classMedians.put(messageClass, medians);
+            classPValues.put(messageClass, pValues);
+        }
+
+        // print results
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("[DONE][INPUT-CLASS] [%s] benchmark... failed verifications: %s",
+                        schemeName, failedVerifications)));
+
+        for (String step : STEP_NAMES) {
+            PrintBenchmarkUtils.printSeparator();
+
+            double baselineMedian = classMedians.get(BASELINE_CLASS).get(step);
+
+            for (MessageClass messageClass : MessageClass.values()) {
+                double classMedian = classMedians.get(messageClass).get(step);
+                double pValue = classPValues.get(messageClass).get(step);
+
+                System.out.println(PrintBenchmarkUtils.padString(
+                        String.format("*** %s :: %s :: median %s (%.3fx %s)  |  p = %.5f %s",
+                                step,
+                                messageClass,
+                                BenchmarkTimes.formatTimeInMs(classMedian),
+                                classMedian / baselineMedian,
+                                BASELINE_CLASS,
+                                pValue,
+                                (messageClass != BASELINE_CLASS && pValue < correctedLevel) ? "[SIGNIFICANT]" : "")));
+                System.out.println(classTimeResults.get(messageClass).get(step).getPrettyString());
+            }
+        }
+
+        PrintBenchmarkUtils.printSeparator();
+        PrintBenchmarkUtils.printSeparator();
+    }
+
+    /**
+     * the level each comparison of a structured class against the baseline is tested at:
+     * {@code SIGNIFICANCE_LEVEL} divided by the number of comparisons (Bonferroni correction)
+     */
+    static double correctedSignificanceLevel() {
+        int comparisons = (MessageClass.values().length - 1) * STEP_NAMES.length;
+        return SIGNIFICANCE_LEVEL / comparisons;
+    }
+
+    /**
+     * signs and verifies the first {@param iterations} messages of each class, switching classes after each message.
+     * Returns the latencies per class, indexed by step and iteration.
+     */
+    private EnumMap<MessageClass,long[][]> measureClasses(int iterations) {
+
+        MessageClass[] classes = MessageClass.values();
+
+        EnumMap<MessageClass,long[][]> samples = new EnumMap<>(MessageClass.class);
+        for (MessageClass messageClass : classes) {
+            samples.put(messageClass, new long[STEP_NAMES.length][iterations]);
+        }
+
+        for (int i = 0; i < iterations; i++) {
+            for (int c = 0; c < classes.length; c++) {
+                // rotate the order, so that no class always runs right after another
+                MessageClass messageClass = classes[(c + i) % classes.length];
+                MessageBlock message = messages.get(messageClass)[i];
+
+                // sign
+                long refTime = System.nanoTime();
+                Signature sigma = schemeInstance.sign(keyPair.getSigningKey(), message);
+                sigma.getRepresentation();
+                long signTime = System.nanoTime();
+
+                // verify
+                boolean valid = schemeInstance.verify(message, sigma, keyPair.getVerificationKey());
+                long verifyTime = System.nanoTime();
+
+                if(!valid) {
+                    failedVerifications++;
+                }
+
+                samples.get(messageClass)[0][i] = signTime - refTime;
+                samples.get(messageClass)[1][i] = verifyTime - signTime;
+            }
+        }
+
+        return samples;
+    }
+
+
+    // statistics
+
+
+    static double median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+
+        int middle = sorted.length / 2;
+        return (sorted.length % 2 == 1) ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2.0;
+    }
+
+    /**
+     * gives the two-sided p-value of a Mann-Whitney U test of {@param a} against {@param b},
+     * using the normal approximation with tie correction
+     */
+    static double mannWhitneyPValue(long[] a, long[] b) {
+
+        int n1 = a.length;
+        int n2 = b.length;
+        int n = n1 + n2;
+
+        // sort all samples, remembering which set they came from
+        long[][] pooled = new long[n][];
+        for (int i = 0; i < n1; i++) {
+            pooled[i] = new long[] {a[i], 0};
+        }
+        for (int i = 0; i < n2; i++) {
+            pooled[n1 + i] = new long[] {b[i], 1};
+        }
+        Arrays.sort(pooled, (x, y) -> Long.compare(x[0], y[0]));
+
+        // sum the ranks of a, giving tied samples their average rank
+        double rankSumA = 0;
+        double tieCorrection = 0;
+
+        for (int i = 0; i < n; ) {
+            int j = i;
+            while (j < n && pooled[j][0] == pooled[i][0]) {
+                j++;
+            }
+
+            double averageRank = (i + 1 + j) / 2.0;
+            for (int k = i; k < j; k++) {
+                if(pooled[k][1] == 0) {
+                    rankSumA += averageRank;
+                }
+            }
+
+            double ties = j - i;
+            tieCorrection += ties * ties * ties - ties;
+            i = j;
+        }
+
+        double u = rankSumA - n1 * (n1 + 1) / 2.0;
+        double mean = n1 * (double) n2 / 2;
+        double variance = n1 * (double) n2 / 12 * ((n + 1) - tieCorrection / (n * (double) (n - 1)));
+
+        if(variance <= 0) {
+            // all samples are equal
+            return 1;
+        }
+
+        double z = Math.abs(u - mean) / Math.sqrt(variance);
+        return 2 * (1 - standardNormalCdf(z));
+    }
+
+    /**
+     * approximates the cumulative distribution function of the standard normal distribution
+     * (Abramowitz and Stegun 7.1.26, absolute error below 1.5e-7)
+     */
+    private static double standardNormalCdf(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1 / (1 + 0.3275911 * x);
+        double erf = 1 - t * (0.254829592 + t * (-0.284496736 + t * (1.421413741
+                + t * (-1.453152027 + t * 1.061405429)))) * Math.exp(-x * x);
+
+        return (z >= 0) ? (1 + erf) / 2 : (1 - erf) / 2;
+    }
+
+}
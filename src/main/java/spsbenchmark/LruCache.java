@@ -0,0 +1,82 @@
+package spsbenchmark;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A thread-safe cache holding at most {@code capacity} entries, evicting the least recently used one when full.
+ * A capacity of 0 caches nothing. Counts the hits and misses of {@link #get}.
+ */
+public class LruCache<K,V> {
+
+    private final int capacity;
+
+    /**
+     * the cached entries, in access order
+     */
+    private final Map<K,V> entries;
+
+    private final AtomicLong hits;
+
+    private final AtomicLong misses;
+
+
+    public LruCache(int capacity) {
+        this.capacity = capacity;
+
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<K,V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > LruCache.this.capacity;
+            }
+        });
+
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+    }
+
+    /**
+     * gives the value cached for {@param key}, or null if there is none
+     */
+    public V get(K key) {
+        V value = entries.get(key);
+
+        if(value == null) {
+            misses.incrementAndGet();
+        }
+        else {
+            hits.incrementAndGet();
+        }
+
+        return value;
+    }
+
+    public void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public double getHitRate() {
+        long requests = hits.get() + misses.get();
+        return (requests == 0) ? 0 : (double) hits.get() / requests;
+    }
+
+}
@@ -0,0 +1,29 @@
+package spsbenchmark;
+
+/**
+ * the kinds of group elements {@link MessageGenerator} can fill messages with.
+ * Used to check whether signing or verifying takes longer for some inputs than for others
+ */
+public enum MessageClass {
+
+    /**
+     * every element is the neutral element of the group
+     */
+    Identity,
+
+    /**
+     * every element is the generator raised to a small random exponent
+     */
+    SmallExponent,
+
+    /**
+     * every element of every message is the same random element
+     */
+    Repeated,
+
+    /**
+     * every element is chosen uniformly at random (i.e. has a full size discrete logarithm)
+     */
+    UniformRandom
+
+}
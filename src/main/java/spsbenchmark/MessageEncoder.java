@@ -0,0 +1,131 @@
+package spsbenchmark;
+
+import org.cryptimeleon.craco.common.plaintexts.GroupElementPlainText;
+import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
+import org.cryptimeleon.math.structures.groups.Group;
+import org.cryptimeleon.math.structures.groups.GroupElement;
+import org.cryptimeleon.math.structures.groups.elliptic.BilinearGroup;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Encodes application messages (one byte string per attribute) into the message group of a scheme
+ * by hashing each attribute into the group.
+ *
+ * Encodings are cached by attribute bytes (see {@link LruCache}).
+ * Messages are encoded in batches: each distinct attribute of a batch that is not cached is hashed once.
+ * A capacity of 0 disables both, so that every attribute is hashed.
+ */
+public class MessageEncoder {
+
+    private final Function<byte[],GroupElement> hashIntoGroup;
+
+    /**
+     * the encodings of recently seen attributes
+     */
+    private final LruCache<ByteBuffer,GroupElement> encodings;
+
+
+    /**
+     * encodes attributes using {@param hashIntoGroup}, caching up to {@param capacity} encodings
+     */
+    public MessageEncoder(Function<byte[],GroupElement> hashIntoGroup, int capacity) {
+        this.hashIntoGroup = hashIntoGroup;
+        this.encodings = new LruCache<>(capacity);
+    }
+
+    /**
+     * sets up an encoder hashing into {@param messageGroup}, which must be G_1 or G_2 of {@param bGroup}
+     */
+    public static MessageEncoder forGroup(BilinearGroup bGroup, Group messageGroup, int capacity) {
+        if(messageGroup.equals(bGroup.getG1())) {
+            return new MessageEncoder(bGroup.getHashIntoG1()::hash, capacity);
+        }
+        if(messageGroup.equals(bGroup.getG2())) {
+            return new MessageEncoder(bGroup.getHashIntoG2()::hash, capacity);
+        }
+
+        throw new IllegalArgumentException("messages can only be encoded into G_1 or G_2");
+    }
+
+
+    /**
+     * encodes a single message given by its {@param attributes}
+     */
+    public MessageBlock encode(byte[][] attributes) {
+        return encodeAll(new byte[][][] {attributes})[0];
+    }
+
+    /**
+     * encodes a batch of messages, each given by its attributes
+     */
+    public MessageBlock[] encodeAll(byte[][][] messages) {
+        MessageBlock[] blocks = new MessageBlock[messages.length];
+
+        // attributes of this batch hashed so far, in case the cache evicted them again
+        Map<ByteBuffer,GroupElement> batchEncodings = new HashMap<>();
+
+        for (int i = 0; i < messages.length; i++) {
+            GroupElementPlainText[] plainTexts = new GroupElementPlainText[messages[i].length];
+            for (int j = 0; j < plainTexts.length; j++) {
+                plainTexts[j] = new GroupElementPlainText(encodeAttribute(messages[i][j], batchEncodings));
+            }
+            blocks[i] = new MessageBlock(plainTexts);
+        }
+
+        return blocks;
+    }
+
+    /**
+     * gives the encoding of {@param attribute}, hashing it only if neither the cache nor {@param batchEncodings}
+     * hold it. Without a cache, every attribute is hashed
+     */
+    private GroupElement encodeAttribute(byte[] attribute, Map<ByteBuffer,GroupElement> batchEncodings) {
+        if(encodings.getCapacity() == 0) {
+            return hashIntoGroup.apply(attribute).computeSync();
+        }
+
+        ByteBuffer key = ByteBuffer.wrap(attribute.clone());
+
+        GroupElement encoding = encodings.get(key);
+        if(encoding == null) {
+            encoding = batchEncodings.get(key);
+        }
+        if(encoding == null) {
+            encoding = hashIntoGroup.apply(attribute).computeSync();
+            encodings.put(key, encoding);
+        }
+
+        batchEncodings.put(key, encoding);
+        return encoding;
+    }
+
+
+    public int getCapacity() {
+        return encodings.getCapacity();
+    }
+
+    public int size() {
+        return encodings.size();
+    }
+
+    public long getHits() {
+        return encodings.getHits();
+    }
+
+    public long getMisses() {
+        return encodings.getMisses();
+    }
+
+    /**
+     * the hit rate of the cache. Attributes repeated within a batch after being evicted count as misses,
+     * although they are not hashed again
+     */
+    public double getHitRate() {
+        return encodings.getHitRate();
+    }
+
+}
@@ -3,11 +3,19 @@ package spsbenchmark;
 import org.cryptimeleon.craco.common.plaintexts.GroupElementPlainText;
 import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
 import org.cryptimeleon.math.structures.groups.Group;
+import org.cryptimeleon.math.structures.groups.GroupElement;
 
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.IntStream;
 
 public class MessageGenerator {
 
+    /**
+     * the exclusive upper bound for exponents of {@code MessageClass.SmallExponent} elements
+     */
+    public static final int SMALL_EXPONENT_BOUND = 256;
+
     /**
      * Precomputes a set of {@param blockCount} messages in {@param targetGroup} for benchmarking.
      * Each MessageBlock will be of length {@param messageLength} and contain GroupElementPlainTexts.
@@ -27,4 +35,71 @@ public class MessageGenerator {
         return messages;
     }
 
+    /**
+     * Precomputes a set of {@param blockCount} messages in {@param targetGroup} for benchmarking.
+     * Each MessageBlock will be of length {@param messageLength} and contain GroupElementPlainTexts
+     * of the given {@param messageClass}.
+     */
+    public static MessageBlock[] prepareMessages(Group targetGroup, int blockCount, int messageLength,
+                                                 MessageClass messageClass) {
+
+        if(messageClass == MessageClass.UniformRandom) {
+            return prepareMessages(targetGroup, blockCount, messageLength);
+        }
+
+        // shared by all elements of all blocks
+        GroupElement repeatedElement = targetGroup.getUniformlyRandomElement().computeSync();
+
+        MessageBlock[] messages = new MessageBlock[blockCount];
+
+        // generate blocks
+        for (int i = 0; i < blockCount; i++) {
+            messages[i] = new MessageBlock(IntStream.range(0, messageLength).mapToObj(
+                    x -> {
+                        GroupElement element;
+
+                        switch (messageClass) {
+                            case Identity:
+                                element = targetGroup.getNeutralElement();
+                                break;
+                            case SmallExponent:
+                                element = targetGroup.getGenerator().pow(
+                                        ThreadLocalRandom.current().nextInt(1, SMALL_EXPONENT_BOUND));
+                                break;
+                            default:
+                                element = repeatedElement;
+                        }
+
+                        // compute now, so that the benchmark does not measure generating the message
+                        return new GroupElementPlainText(element.computeSync());
+                    }).toArray(GroupElementPlainText[]::new)
+            );
+        }
+
+        return messages;
+    }
+
+    /**
+     * Generates {@param blockCount} application messages of {@param messageLength} attributes each,
+     * as raw byte strings of {@param payloadSize} bytes. Attributes are drawn from {@param distinctValues}
+     * random values, so that they repeat across messages like real attributes do.
+     */
+    public static byte[][][] preparePayloads(int blockCount, int messageLength, int payloadSize,
+                                             int distinctValues, Random random) {
+
+        byte[][] values = new byte[distinctValues][payloadSize];
+        for (byte[] value : values) {
+            random.nextBytes(value);
+        }
+
+        byte[][][] payloads = new byte[blockCount][messageLength][];
+        for (int i = 0; i < blockCount; i++) {
+            for (int j = 0; j < messageLength; j++) {
+                payloads[i][j] = values[random.nextInt(distinctValues)];
+            }
+        }
+
+        return payloads;
+    }
+
 }
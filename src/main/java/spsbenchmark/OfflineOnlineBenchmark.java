@@ -0,0 +1,298 @@
+package spsbenchmark;
+
+import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
+import org.cryptimeleon.craco.sig.MultiMessageStructurePreservingSignatureScheme;
+import org.cryptimeleon.craco.sig.SignatureKeyPair;
+import org.cryptimeleon.math.structures.groups.elliptic.BilinearGroup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiFunction;
+import java.util.function.IntConsumer;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Benchmarks offline/online signing of Groth15 (signing G_1 elements) with a background {@link PresignaturePool}.
+ *
+ * Measures
+ * the craco sign for reference,
+ * signing without precomputation,
+ * the online part of signing while the pool has presignatures available,
+ * how fast the workers refill the pool,
+ * and a burst of back-to-back requests that drains the pool.
+ */
+public class OfflineOnlineBenchmark {
+
+    // these are given on start up
+
+    /**
+     * defines the shared parameters of the benchmark
+     */
+    private final BenchmarkConfig config;
+
+    private final MessageBlock[] messages;
+
+    /**
+     * constructs the craco scheme to compare against
+     */
+    private final BiFunction<BilinearGroup,Integer,MultiMessageStructurePreservingSignatureScheme> schemeSetupFunction;
+
+    private final int poolCapacity;
+
+    private final int workerThreads;
+
+    /**
+     * the number of back-to-back requests in the burst
+     */
+    private final int burstSize;
+
+
+    // these are calculated during the benchmark
+
+    /**
+     * Stores the results of the benchmark times for each step
+     */
+    private final LinkedHashMap<String,BenchmarkTimes> benchmarkTimeResults;
+
+    /**
+     * presignatures computed per second while refilling an empty pool
+     */
+    private double refillThroughput;
+
+    /**
+     * the index of the first request of the burst that found the pool empty (-1 if none did)
+     */
+    private int burstFirstMiss;
+
+    private long burstMisses;
+
+    private int failedVerifications;
+
+
+    /**
+     * Sets up an offline/online benchmark signing {@param messages} (see {@code config.runIterations}).
+     * The pool holds {@param poolCapacity} presignatures and is refilled by {@param workerThreads} threads.
+     */
+    public OfflineOnlineBenchmark(BenchmarkConfig config,
+                                  MessageBlock[] messages,
+                                  BiFunction<BilinearGroup,Integer,MultiMessageStructurePreservingSignatureScheme> schemeSetupFunction,
+                                  int poolCapacity,
+                                  int workerThreads,
+                                  int burstSize) {
+
+        if(poolCapacity < 1) {
+            throw new IllegalArgumentException(
+                    String.format("poolCapacity: the pool needs room for at least one presignature, got %s", poolCapacity));
+        }
+        if(workerThreads < 1) {
+            throw new IllegalArgumentException(
+                    String.format("workerThreads: needs at least one worker, got %s", workerThreads));
+        }
+        if(burstSize < 0) {
+            throw new IllegalArgumentException(String.format("burstSize: must not be negative, got %s", burstSize));
+        }
+
+        // print the config
+        PrintBenchmarkUtils.prettyPrintConfig(config, BenchmarkMode.OfflineOnline);
+
+        this.config = config;
+        this.messages = messages;
+        this.schemeSetupFunction = schemeSetupFunction;
+        this.poolCapacity = poolCapacity;
+        this.workerThreads = workerThreads;
+        this.burstSize = burstSize;
+
+        this.benchmarkTimeResults = new LinkedHashMap<>();
+        this.burstFirstMiss = -1;
+
+        autoRunBenchmark();
+    }
+
+
+    public BenchmarkConfig getConfig() {
+        return config;
+    }
+
+    public BenchmarkTimes getBenchmarkTimeResult(String operation) {
+        return benchmarkTimeResults.get(operation);
+    }
+
+    public LinkedHashMap<String, BenchmarkTimes> getBenchmarkTimeResults() {
+        return benchmarkTimeResults;
+    }
+
+    public double getRefillThroughput() {
+        return refillThroughput;
+    }
+
+    public int getBurstFirstMiss() {
+        return burstFirstMiss;
+    }
+
+    public long getBurstMisses() {
+        return burstMisses;
+    }
+
+    public int getFailedVerifications() {
+        return failedVerifications;
+    }
+
+
+    private void autoRunBenchmark() {
+
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("[START][OFFLINE-ONLINE] pool capacity %s :: %s worker(s) :: burst of %s",
+                        poolCapacity, workerThreads, burstSize)));
+
+        // craco reference
+        MultiMessageStructurePreservingSignatureScheme scheme
+                = schemeSetupFunction.apply(config.getTimerBGroup(), config.getMessageLength());
+        SignatureKeyPair keyPair = scheme.generateKeyPair(config.getMessageLength());
+
+        measureStep("craco sign", i -> scheme.sign(keyPair.getSigningKey(), messages[i]).getRepresentation());
+
+        // without precomputation
+        Groth15OfflineOnlineSigner signer
+                = new Groth15OfflineOnlineSigner(config.getTimerBGroup(), config.getMessageLength());
+
+        // the measured iterations overwrite every signature of the pre-warm iterations, so only they are verified
+        Groth15OfflineOnlineSigner.Groth15Signature[] signatures
+                = new Groth15OfflineOnlineSigner.Groth15Signature[messages.length];
+
+        measureStep("full sign", i -> signatures[i] = signer.sign(messages[i]));
+        verifySignatures(signer, signatures);
+
+        try (PresignaturePool pool = new PresignaturePool(signer, poolCapacity, workerThreads)) {
+
+            // refill an empty pool
+            long refTime = System.nanoTime();
+            pool.start();
+            awaitPoolLevel(pool, poolCapacity);
+            refillThroughput = poolCapacity / (BenchmarkTimes.milliFromNano(System.nanoTime() - refTime) / 1000);
+
+            // online part only, never letting the pool run dry
+            measureSelfTimedStep("online sign", i -> {
+                awaitPoolLevel(pool, 1);
+                long stepTime = System.nanoTime();
+
+                signatures[i] = signer.signOnline(pool.take(), messages[i]);
+
+                return System.nanoTime() - stepTime;
+            });
+            verifySignatures(signer, signatures);
+
+            runBurst(signer, pool);
+        }
+
+        // print results
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("[DONE][OFFLINE-ONLINE] benchmark... failed verifications: %s", failedVerifications)));
+
+        benchmarkTimeResults.forEach((step, times) -> {
+            PrintBenchmarkUtils.printSeparator();
+            System.out.println(PrintBenchmarkUtils.padString(String.format("*** %s", step)));
+            System.out.println(times.getPrettyString());
+        });
+
+        PrintBenchmarkUtils.printSeparator();
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("*** Pool refill :: %.2f presignatures/s with %s worker(s)",
+                        refillThroughput, workerThreads)));
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("*** Burst :: %s of %s requests found the pool empty  |  first at request %s",
+                        burstMisses, burstSize, burstFirstMiss)));
+
+        PrintBenchmarkUtils.printSeparator();
+        PrintBenchmarkUtils.printSeparator();
+    }
+
+    /**
+     * verifies {@param signatures} on the messages of the same index, counting the failed verifications
+     */
+    private void verifySignatures(Groth15OfflineOnlineSigner signer,
+                                  Groth15OfflineOnlineSigner.Groth15Signature[] signatures) {
+        for (int i = 0; i < signatures.length; i++) {
+            if(!signer.verify(messages[i], signatures[i])) {
+                failedVerifications++;
+            }
+        }
+    }
+
+    /**
+     * waits for a full pool and then sends {@code burstSize} requests back to back,
+     * separating the latencies of requests served from the pool from those that had to presign themselves
+     */
+    private void runBurst(Groth15OfflineOnlineSigner signer, PresignaturePool pool) {
+
+        awaitPoolLevel(pool, poolCapacity);
+
+        List<Long> hitTimes = new ArrayList<>();
+        List<Long> missTimes = new ArrayList<>();
+
+        for (int i = 0; i < burstSize; i++) {
+            long missesBefore = pool.getMisses();
+
+            long refTime = System.nanoTime();
+            signer.signOnline(pool.take(), messages[i % messages.length]);
+            long delta = System.nanoTime() - refTime;
+
+            if(pool.getMisses() > missesBefore) {
+                missTimes.add(delta);
+                if(burstFirstMiss < 0) {
+                    burstFirstMiss = i;
+                }
+            }
+            else {
+                hitTimes.add(delta);
+            }
+        }
+
+        burstMisses = missTimes.size();
+
+        if(!hitTimes.isEmpty()) {
+            benchmarkTimeResults.put("burst sign (from pool)",
+                    BenchmarkTimes.fromSamples(hitTimes.stream().mapToLong(Long::longValue).toArray()));
+        }
+        if(!missTimes.isEmpty()) {
+            benchmarkTimeResults.put("burst sign (pool empty)",
+                    BenchmarkTimes.fromSamples(missTimes.stream().mapToLong(Long::longValue).toArray()));
+        }
+    }
+
+    /**
+     * pre-warms and then measures {@param step} for all iterations, storing the results as {@param stepName}
+     */
+    private void measureStep(String stepName, IntConsumer step) {
+        benchmarkTimeResults.put(stepName,
+                BenchmarkTimes.measure(config.getPrewarmIterations(), config.getRunIterations(), step));
+    }
+
+    /**
+     * pre-warms and then measures {@param step} for all iterations, storing the results as {@param stepName}.
+     * {@param step} measures itself and returns the time it took
+     */
+    private void measureSelfTimedStep(String stepName, IntToLongFunction step) {
+        benchmarkTimeResults.put(stepName, BenchmarkTimes.measureSelfTimed(
+                config.getPrewarmIterations(), config.getRunIterations(), step::applyAsLong, step));
+    }
+
+    /**
+     * waits until the pool holds at least {@param level} presignatures,
+     * failing if a worker failed or no worker is left to fill the pool
+     */
+    private static void awaitPoolLevel(PresignaturePool pool, int level) {
+        while (pool.size() < level) {
+            if(pool.getFailure() != null) {
+                throw new IllegalStateException("a presignature worker failed", pool.getFailure());
+            }
+            if(pool.getLiveWorkers() == 0) {
+                throw new IllegalStateException("no presignature worker is running");
+            }
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+    }
+
+}
@@ -0,0 +1,93 @@
+package spsbenchmark;
+
+import org.cryptimeleon.math.structures.groups.GroupElement;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Computes the group elements of a result (e.g. a key pair or signature) on a fork-join pool.
+ *
+ * Group elements are lazy: a scheme only records the exponentiations and multi-exponentiations of a result,
+ * and they are evaluated once the result is used. The evaluations of different elements of a result are
+ * independent of each other, so for results over long message vectors they can be spread across threads.
+ * The elements of a result are found by a {@link GroupElementCollector}.
+ */
+public class ParallelEvaluator implements AutoCloseable {
+
+    private final ForkJoinPool pool;
+
+    /**
+     * the minimal number of elements in a result for it to be computed in parallel
+     */
+    private final int threshold;
+
+
+    public ParallelEvaluator(int parallelism, int threshold) {
+        this.pool = new ForkJoinPool(parallelism);
+        this.threshold = threshold;
+    }
+
+    /**
+     * computes all group elements reachable from {@param result}.
+     * Does so in parallel if there are at least {@code threshold} of them, and sequentially otherwise.
+     * Returns the number of elements found.
+     */
+    public int computeAll(Object result) {
+        List<GroupElement> elements = GroupElementCollector.collect(result);
+
+        if(elements.size() < Math.max(threshold, 2)) {
+            elements.forEach(GroupElement::computeSync);
+        }
+        else {
+            pool.invoke(new ComputeTask(elements, 0, elements.size()));
+        }
+
+        return elements.size();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+
+    /**
+     * computes a range of elements, splitting it in halves until single elements remain
+     */
+    private static class ComputeTask extends RecursiveAction {
+
+        private final List<GroupElement> elements;
+
+        private final int from;
+
+        private final int to;
+
+        private ComputeTask(List<GroupElement> elements, int from, int to) {
+            this.elements = elements;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from == 1) {
+                elements.get(from).computeSync();
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new ComputeTask(elements, from, middle), new ComputeTask(elements, middle, to));
+        }
+    }
+
+}
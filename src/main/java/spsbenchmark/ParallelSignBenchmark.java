@@ -0,0 +1,148 @@
+package spsbenchmark;
+
+import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
+import org.cryptimeleon.craco.sig.MultiMessageStructurePreservingSignatureScheme;
+import org.cryptimeleon.math.structures.groups.Group;
+import org.cryptimeleon.math.structures.groups.elliptic.BilinearGroup;
+
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Measures the latency of a single keyGen and sign request against the number of threads used to compute it
+ * (see {@link ParallelEvaluator}) and the message length.
+ *
+ * Runs a timer {@link SPSBenchmark} for each combination of message length and thread count. Both double
+ * from 1 up to {@code config.messageLength} and the given maximal thread count.
+ */
+public class ParallelSignBenchmark {
+
+    private static final String[] STEP_NAMES = {"keyGen", "sign"};
+
+
+    // these are given on start up
+
+    /**
+     * defines the shared parameters of the benchmark
+     */
+    private final BenchmarkConfig config;
+
+    private final Function<BilinearGroup,Group> messageGroup;
+
+    private final UnaryOperator<MessageBlock> messageWrapper;
+
+    private final BiFunction<BilinearGroup,Integer,MultiMessageStructurePreservingSignatureScheme> schemeSetupFunction;
+
+    private final int maxThreads;
+
+    private final int parallelThreshold;
+
+
+    /**
+     * Stores the benchmark times per message length, thread count and step
+     */
+    private final TreeMap<Integer,TreeMap<Integer,HashMap<String,BenchmarkTimes>>> sweepResults;
+
+
+    /**
+     * Sets up the sweep for the scheme generated by {@param schemeSetupFunction}
+     */
+    public ParallelSignBenchmark(BenchmarkConfig config,
+                                 Function<BilinearGroup,Group> messageGroup,
+                                 UnaryOperator<MessageBlock> messageWrapper,
+                                 BiFunction<BilinearGroup,Integer,MultiMessageStructurePreservingSignatureScheme> schemeSetupFunction,
+                                 int maxThreads,
+                                 int parallelThreshold) {
+
+        this.config = config;
+        this.messageGroup = messageGroup;
+        this.messageWrapper = messageWrapper;
+        this.schemeSetupFunction = schemeSetupFunction;
+        this.maxThreads = maxThreads;
+        this.parallelThreshold = parallelThreshold;
+
+        this.sweepResults = new TreeMap<>();
+
+        autoRunBenchmark();
+    }
+
+
+    public BenchmarkConfig getConfig() {
+        return config;
+    }
+
+    public TreeMap<Integer, TreeMap<Integer, HashMap<String, BenchmarkTimes>>> getSweepResults() {
+        return sweepResults;
+    }
+
+
+    private void autoRunBenchmark() {
+
+        for (int messageLength : PrintBenchmarkUtils.doublingSequence(config.getMessageLength())) {
+
+            MessageBlock[] messages = Arrays.stream(MessageGenerator.prepareMessages(
+                            messageGroup.apply(config.getTimerBGroup()), config.getRunIterations(), messageLength))
+                    .map(messageWrapper)
+                    .toArray(MessageBlock[]::new);
+
+            TreeMap<Integer,HashMap<String,BenchmarkTimes>> lengthResults = new TreeMap<>();
+
+            for (int threads : PrintBenchmarkUtils.doublingSequence(maxThreads)) {
+                BenchmarkConfig sweepConfig = new BenchmarkConfig(config.getSchemeName(),
+                        config.getTimerBGroup(),
+                        config.getCountingBGroup(),
+                        config.getPrewarmIterations(),
+                        config.getRunIterations(),
+                        messageLength,
+                        threads,
+                        parallelThreshold);
+
+                SPSBenchmark benchmark = new SPSBenchmark(sweepConfig, BenchmarkMode.Time, messages, schemeSetupFunction);
+
+                HashMap<String,BenchmarkTimes> stepResults = new HashMap<>();
+                for (String step : STEP_NAMES) {
+                    stepResults.put(step, benchmark.getBenchmarkTimeResult(step));
+                }
+                lengthResults.put(threads, stepResults);
+            }
+
+            sweepResults.put(messageLength, lengthResults);
+        }
+
+        printResults();
+    }
+
+    private void printResults() {
+
+        PrintBenchmarkUtils.printSeparator();
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("[DONE][PARALLEL-SIGN] [%s] benchmark... parallel from %s elements",
+                        config.getSchemeName(), parallelThreshold)));
+
+        sweepResults.forEach((messageLength, lengthResults) -> {
+            PrintBenchmarkUtils.printSeparator();
+            HashMap<String,BenchmarkTimes> sequential = lengthResults.firstEntry().getValue();
+
+            lengthResults.forEach((threads, stepResults) -> {
+                StringBuilder line = new StringBuilder(
+                        String.format("*** messageLength %s :: %s thread(s)", messageLength, threads));
+
+                for (String step : STEP_NAMES) {
+                    double avgTime = stepResults.get(step).getAvgTime();
+                    line.append(String.format("  |  %s avg: %s (%.2fx)",
+                            step,
+                            BenchmarkTimes.formatTimeInMs(avgTime),
+                            sequential.get(step).getAvgTime() / avgTime));
+                }
+
+                System.out.println(PrintBenchmarkUtils.padString(line.toString()));
+            });
+        });
+
+        PrintBenchmarkUtils.printSeparator();
+        PrintBenchmarkUtils.printSeparator();
+    }
+
+}
@@ -0,0 +1,231 @@
+package spsbenchmark;
+
+import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
+import org.cryptimeleon.craco.sig.MultiMessageStructurePreservingSignatureScheme;
+import org.cryptimeleon.craco.sig.Signature;
+import org.cryptimeleon.craco.sig.SignatureKeyPair;
+import org.cryptimeleon.math.structures.groups.elliptic.BilinearGroup;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+import java.util.function.IntPredicate;
+
+/**
+ * Measures the latency of a single Groth15 (signing G_1 elements) verify against the number of threads
+ * evaluating its pairings (see {@link Groth15OfflineOnlineSigner#verifyParallel}) and the message length.
+ *
+ * Message lengths and thread counts double from 1 up to {@code config.messageLength} and the given maximal
+ * thread count. The craco verify is measured for each message length as well.
+ * Speedups are given against the faster of the craco and the sequential verify, and the crossover point is the
+ * shortest message length for which some parallel verify beats both.
+ */
+public class ParallelVerifyBenchmark {
+
+    /**
+     * the thread count under which the craco verify is stored
+     */
+    public static final int CRACO_REFERENCE = 0;
+
+
+    // these are given on start up
+
+    /**
+     * defines the shared parameters of the benchmark
+     */
+    private final BenchmarkConfig config;
+
+    private final BiFunction<BilinearGroup,Integer,MultiMessageStructurePreservingSignatureScheme> schemeSetupFunction;
+
+    private final int maxThreads;
+
+
+    // these are calculated during the benchmark
+
+    /**
+     * Stores the verify times per message length and thread count (craco under {@link #CRACO_REFERENCE})
+     */
+    private final TreeMap<Integer,TreeMap<Integer,BenchmarkTimes>> sweepResults;
+
+    /**
+     * the shortest message length for which a parallel verify beats both the craco and the sequential one
+     * (-1 if it never did)
+     */
+    private int crossoverLength;
+
+    private int failedVerifications;
+
+
+    /**
+     * Sets up the sweep, comparing against the craco scheme generated by {@param schemeSetupFunction}
+     */
+    public ParallelVerifyBenchmark(BenchmarkConfig config,
+                                   BiFunction<BilinearGroup,Integer,MultiMessageStructurePreservingSignatureScheme> schemeSetupFunction,
+                                   int maxThreads) {
+
+        // print the config
+        PrintBenchmarkUtils.prettyPrintConfig(config, BenchmarkMode.ParallelVerify);
+
+        this.config = config;
+        this.schemeSetupFunction = schemeSetupFunction;
+        this.maxThreads = maxThreads;
+
+        this.sweepResults = new TreeMap<>();
+        this.crossoverLength = -1;
+
+        autoRunBenchmark();
+    }
+
+
+    public BenchmarkConfig getConfig() {
+        return config;
+    }
+
+    public TreeMap<Integer, TreeMap<Integer, BenchmarkTimes>> getSweepResults() {
+        return sweepResults;
+    }
+
+    public int getCrossoverLength() {
+        return crossoverLength;
+    }
+
+    public int getFailedVerifications() {
+        return failedVerifications;
+    }
+
+
+    private void autoRunBenchmark() {
+
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("[START][PARALLEL-VERIFY] up to %s thread(s)", maxThreads)));
+
+        for (int messageLength : PrintBenchmarkUtils.doublingSequence(config.getMessageLength())) {
+
+            MessageBlock[] messages = MessageGenerator.prepareMessages(
+                    config.getTimerBGroup().getG1(), config.getRunIterations(), messageLength);
+
+            TreeMap<Integer,BenchmarkTimes> lengthResults = new TreeMap<>();
+
+            // craco reference
+            MultiMessageStructurePreservingSignatureScheme scheme
+                    = schemeSetupFunction.apply(config.getTimerBGroup(), messageLength);
+            SignatureKeyPair keyPair = scheme.generateKeyPair(messageLength);
+
+            Signature[] cracoSignatures = new Signature[messages.length];
+            for (int i = 0; i < messages.length; i++) {
+                cracoSignatures[i] = scheme.sign(keyPair.getSigningKey(), messages[i]);
+                cracoSignatures[i].getRepresentation();
+            }
+
+            lengthResults.put(CRACO_REFERENCE, measureVerify(
+                    i -> scheme.verify(messages[i], cracoSignatures[i], keyPair.getVerificationKey())));
+
+            // sequential and parallel verify of the same signatures
+            Groth15OfflineOnlineSigner signer
+                    = new Groth15OfflineOnlineSigner(config.getTimerBGroup(), messageLength);
+
+            Groth15OfflineOnlineSigner.Groth15Signature[] signatures
+                    = new Groth15OfflineOnlineSigner.Groth15Signature[messages.length];
+            for (int i = 0; i < messages.length; i++) {
+                signatures[i] = signer.sign(messages[i]);
+            }
+
+            for (int threads : PrintBenchmarkUtils.doublingSequence(maxThreads)) {
+                if(threads == 1) {
+                    lengthResults.put(threads, measureVerify(i -> signer.verify(messages[i], signatures[i])));
+                    continue;
+                }
+
+                ExecutorService executor = Executors.newFixedThreadPool(threads);
+                try {
+                    lengthResults.put(threads, measureVerify(
+                            i -> signer.verifyParallel(messages[i], signatures[i], executor, threads)));
+                }
+                finally {
+                    executor.shutdown();
+                }
+            }
+
+            sweepResults.put(messageLength, lengthResults);
+
+            if(crossoverLength < 0 && parallelPaysOff(lengthResults)) {
+                crossoverLength = messageLength;
+            }
+        }
+
+        printResults();
+    }
+
+    /**
+     * pre-warms and then measures {@param verify} for all iterations, given the index of the message
+     */
+    private BenchmarkTimes measureVerify(IntPredicate verify) {
+
+        // the measured iterations overwrite every outcome of the pre-warm iterations, so only they are counted
+        boolean[] valid = new boolean[config.getRunIterations()];
+        BenchmarkTimes times = BenchmarkTimes.measure(config.getPrewarmIterations(), config.getRunIterations(),
+                i -> valid[i] = verify.test(i));
+
+        for (boolean outcome : valid) {
+            if(!outcome) {
+                failedVerifications++;
+            }
+        }
+
+        return times;
+    }
+
+    /**
+     * whether any parallel verify was faster on average than both the craco and the sequential one
+     */
+    private static boolean parallelPaysOff(TreeMap<Integer,BenchmarkTimes> lengthResults) {
+        double baselineTime = baselineTime(lengthResults);
+
+        return lengthResults.tailMap(1, false).values().stream()
+                .anyMatch(times -> times.getAvgTime() < baselineTime);
+    }
+
+    /**
+     * the average time of the faster of the craco and the sequential verify
+     */
+    private static double baselineTime(TreeMap<Integer,BenchmarkTimes> lengthResults) {
+        return Math.min(lengthResults.get(CRACO_REFERENCE).getAvgTime(), lengthResults.get(1).getAvgTime());
+    }
+
+    private void printResults() {
+
+        PrintBenchmarkUtils.printSeparator();
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("[DONE][PARALLEL-VERIFY] benchmark... failed verifications: %s", failedVerifications)));
+
+        sweepResults.forEach((messageLength, lengthResults) -> {
+            PrintBenchmarkUtils.printSeparator();
+            double baselineTime = baselineTime(lengthResults);
+
+            for (Map.Entry<Integer,BenchmarkTimes> entry : lengthResults.entrySet()) {
+                double avgTime = entry.getValue().getAvgTime();
+                String variant = (entry.getKey() == CRACO_REFERENCE)
+                        ? "craco verify"
+                        : String.format("%s thread(s)", entry.getKey());
+
+                System.out.println(PrintBenchmarkUtils.padString(
+                        String.format("*** messageLength %s :: %s  |  verify avg: %s (%.2fx)",
+                                messageLength,
+                                variant,
+                                BenchmarkTimes.formatTimeInMs(avgTime),
+                                baselineTime / avgTime)));
+            }
+        });
+
+        PrintBenchmarkUtils.printSeparator();
+        System.out.println(PrintBenchmarkUtils.padString((crossoverLength < 0)
+                ? "*** Crossover :: parallel verify did not pay off for any message length"
+                : String.format("*** Crossover :: parallel verify pays off from messageLength %s", crossoverLength)));
+
+        PrintBenchmarkUtils.printSeparator();
+        PrintBenchmarkUtils.printSeparator();
+    }
+
+}
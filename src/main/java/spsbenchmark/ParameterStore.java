@@ -0,0 +1,128 @@
+package spsbenchmark;
+
+import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
+import org.cryptimeleon.craco.sig.MultiMessageStructurePreservingSignatureScheme;
+import org.cryptimeleon.craco.sig.SignatureKeyPair;
+import org.cryptimeleon.craco.sig.SigningKey;
+import org.cryptimeleon.craco.sig.VerificationKey;
+import org.cryptimeleon.math.serialization.Representation;
+import org.cryptimeleon.math.serialization.converter.JSONConverter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Stores pre-generated public parameters, keys and messages on disk,
+ * so that they can be loaded instead of regenerated.
+ *
+ * A scheme is stored as its representation (which includes the public parameters and bilinear group)
+ * next to the name of its class. It is restored via the scheme's {@code Representation} constructor.
+ */
+public class ParameterStore {
+
+    private static final String SCHEME_CLASS_FILE = "scheme.class";
+    private static final String SCHEME_FILE = "scheme.json";
+    private static final String SIGNING_KEY_FILE = "signingKey.json";
+    private static final String VERIFICATION_KEY_FILE = "verificationKey.json";
+    private static final String MESSAGE_FILE = "message.json";
+
+    /**
+     * the directory to store files in
+     */
+    private final Path directory;
+
+    private final JSONConverter converter;
+
+    public ParameterStore(Path directory) {
+        this.directory = directory;
+        this.converter = new JSONConverter();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+
+    // saving
+
+
+    /**
+     * stores {@param scheme} (including its public parameters), {@param keyPair}
+     * and {@param message}, overwriting any previously stored files
+     */
+    public void save(MultiMessageStructurePreservingSignatureScheme scheme,
+                     SignatureKeyPair<? extends VerificationKey, ? extends SigningKey> keyPair,
+                     MessageBlock message) {
+        try {
+            Files.createDirectories(directory);
+
+            write(SCHEME_CLASS_FILE, scheme.getClass().getName());
+            write(SCHEME_FILE, converter.serialize(scheme.getRepresentation()));
+            write(SIGNING_KEY_FILE, converter.serialize(keyPair.getSigningKey().getRepresentation()));
+            write(VERIFICATION_KEY_FILE, converter.serialize(keyPair.getVerificationKey().getRepresentation()));
+            write(MESSAGE_FILE, converter.serialize(message.getRepresentation()));
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    // loading
+
+
+    /**
+     * restores the stored scheme and its public parameters
+     */
+    public MultiMessageStructurePreservingSignatureScheme loadScheme() {
+        String className = read(SCHEME_CLASS_FILE).trim();
+        Representation repr = converter.deserialize(read(SCHEME_FILE));
+
+        try {
+            return (MultiMessageStructurePreservingSignatureScheme) Class.forName(className)
+                    .getConstructor(Representation.class)
+                    .newInstance(repr);
+        }
+        catch (ClassNotFoundException | NoSuchMethodException | InstantiationException
+               | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException(String.format("cannot restore scheme %s", className), e);
+        }
+    }
+
+    /**
+     * restores the stored key pair using {@param scheme}
+     */
+    public SignatureKeyPair<VerificationKey, SigningKey> loadKeyPair(MultiMessageStructurePreservingSignatureScheme scheme) {
+        SigningKey signingKey = scheme.restoreSigningKey(converter.deserialize(read(SIGNING_KEY_FILE)));
+        VerificationKey verificationKey
+                = scheme.restoreVerificationKey(converter.deserialize(read(VERIFICATION_KEY_FILE)));
+
+        return new SignatureKeyPair<>(verificationKey, signingKey);
+    }
+
+    /**
+     * restores the stored message using {@param scheme}
+     */
+    public MessageBlock loadMessage(MultiMessageStructurePreservingSignatureScheme scheme) {
+        return (MessageBlock) scheme.restorePlainText(converter.deserialize(read(MESSAGE_FILE)));
+    }
+
+
+    private void write(String fileName, String content) throws IOException {
+        Files.write(directory.resolve(fileName), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String read(String fileName) {
+        try {
+            return new String(Files.readAllBytes(directory.resolve(fileName)), StandardCharsets.UTF_8);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
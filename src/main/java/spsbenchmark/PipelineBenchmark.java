@@ -0,0 +1,504 @@
+package spsbenchmark;
+
+import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
+import org.cryptimeleon.craco.sig.MultiMessageStructurePreservingSignatureScheme;
+import org.cryptimeleon.craco.sig.Signature;
+import org.cryptimeleon.craco.sig.SignatureKeyPair;
+import org.cryptimeleon.math.serialization.Representation;
+import org.cryptimeleon.math.serialization.converter.JSONConverter;
+import org.cryptimeleon.math.structures.groups.elliptic.BilinearGroup;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Runs a scheme as an asynchronous pipeline instead of timing its steps in isolation.
+ * Signing, encoding, transmitting, decoding and verifying each run on their own executor
+ * and pass messages on to the next stage via bounded queues.
+ *
+ * Measures the end-to-end throughput, the time each stage spends on a message and the depth of the queue in front
+ * of each stage. A stage whose queue fills up is the bottleneck of the pipeline.
+ */
+public class PipelineBenchmark {
+
+    /**
+     * the stages of the pipeline, in the order messages pass through them
+     */
+    public static final String[] STAGE_NAMES = {"sign", "encode", "transmit", "decode", "verify"};
+
+    /**
+     * how long blocking hand-overs wait before checking whether a stage has failed
+     */
+    private static final long FAILURE_CHECK_MILLIS = 100;
+
+
+    // these are given on start up
+
+    /**
+     * defines the shared parameters of the benchmark
+     */
+    private final BenchmarkConfig config;
+
+    /**
+     * the messages to send through the pipeline
+     */
+    private final MessageBlock[] messages;
+
+    /**
+     * the capacity of the queue in front of each stage
+     */
+    private final int queueCapacity;
+
+    /**
+     * the number of worker threads per stage (see {@code STAGE_NAMES})
+     */
+    private final int[] stageThreads;
+
+
+    // these are calculated during the benchmark
+
+    private final MultiMessageStructurePreservingSignatureScheme schemeInstance;
+
+    private final SignatureKeyPair keyPair;
+
+    /**
+     * the stage functions, applied to the payload of a message in order
+     */
+    private final List<Function<PipelineItem, Object>> stageFunctions;
+
+    /**
+     * Stores the time each stage spent per message
+     */
+    private final HashMap<String,BenchmarkTimes> stageTimeResults;
+
+    /**
+     * Stores the largest number of messages waiting in front of each stage
+     */
+    private final HashMap<String,Integer> maxQueueDepths;
+
+    /**
+     * Stores the average number of messages waiting in front of each stage
+     */
+    private final HashMap<String,Double> avgQueueDepths;
+
+    /**
+     * the time from handing a message to the pipeline until its signature is verified
+     */
+    private BenchmarkTimes endToEndTimes;
+
+    /**
+     * messages passing through the whole pipeline per second
+     */
+    private double throughput;
+
+    private int failedVerifications;
+
+
+    /**
+     * Sets up a pipeline benchmark for the scheme generated by {@param schemeSetupFunction}
+     * and runs it on the timer group.
+     * {@param stageThreads} gives the number of worker threads for each of the {@code STAGE_NAMES}.
+     */
+    public PipelineBenchmark(BenchmarkConfig config,
+                             MessageBlock[] messages,
+                             BiFunction<BilinearGroup,Integer,MultiMessageStructurePreservingSignatureScheme> schemeSetupFunction,
+                             int queueCapacity,
+                             int[] stageThreads) {
+
+        if(stageThreads.length != STAGE_NAMES.length) {
+            throw new IllegalArgumentException(String.format("expected thread counts for %s stages, got %s",
+                    STAGE_NAMES.length, stageThreads.length));
+        }
+        for (int stage = 0; stage < STAGE_NAMES.length; stage++) {
+            if(stageThreads[stage] < 1) {
+                throw new IllegalArgumentException(String.format("%sThreads: needs at least one worker, got %s",
+                        STAGE_NAMES[stage], stageThreads[stage]));
+            }
+        }
+        if(queueCapacity < 1) {
+            throw new IllegalArgumentException(
+                    String.format("queueCapacity: each queue needs room for at least one message, got %s", queueCapacity));
+        }
+
+        // print the config
+        PrintBenchmarkUtils.prettyPrintConfig(config, BenchmarkMode.Pipeline);
+
+        this.config = config;
+        this.messages = messages;
+        this.queueCapacity = queueCapacity;
+        this.stageThreads = stageThreads;
+
+        //instantiate the scheme and a key pair shared by all messages
+        this.schemeInstance = schemeSetupFunction.apply(config.getTimerBGroup(), config.getMessageLength());
+        this.keyPair = schemeInstance.generateKeyPair(config.getMessageLength());
+
+        // make sure the key is computed before it is shared between threads
+        keyPair.getSigningKey().getRepresentation();
+        keyPair.getVerificationKey().getRepresentation();
+
+        this.stageFunctions = prepareStageFunctions();
+
+        this.stageTimeResults = new HashMap<>();
+        this.maxQueueDepths = new HashMap<>();
+        this.avgQueueDepths = new HashMap<>();
+
+        // run the pipeline
+        autoRunBenchmark();
+    }
+
+
+    public BenchmarkConfig getConfig() {
+        return config;
+    }
+
+    public BenchmarkTimes getStageTimeResult(String stage) {
+        return stageTimeResults.get(stage);
+    }
+
+    public HashMap<String, BenchmarkTimes> getStageTimeResults() {
+        return stageTimeResults;
+    }
+
+    public HashMap<String, Integer> getMaxQueueDepths() {
+        return maxQueueDepths;
+    }
+
+    public HashMap<String, Double> getAvgQueueDepths() {
+        return avgQueueDepths;
+    }
+
+    public BenchmarkTimes getEndToEndTimes() {
+        return endToEndTimes;
+    }
+
+    public double getThroughput() {
+        return throughput;
+    }
+
+    public int getFailedVerifications() {
+        return failedVerifications;
+    }
+
+
+    /**
+     * pre-warms the pipeline and then runs it once, measuring all {@code config.runIterations} messages
+     */
+    private void autoRunBenchmark() {
+
+        String schemeName = schemeInstance.getClass().getSimpleName();
+
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("[START][PIPELINE] (pre-warm) [%s] benchmark...", schemeName)));
+
+        runPipeline(config.getPrewarmIterations(), true);
+
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("[DONE][PIPELINE] (pre-warm) [%s] benchmark...", schemeName)));
+        System.out.println(PrintBenchmarkUtils.padString(""));
+
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("[START][PIPELINE] [%s] benchmark... queue capacity %s", schemeName, queueCapacity)));
+
+        runPipeline(config.getRunIterations(), false);
+
+        // print results
+        System.out.println(PrintBenchmarkUtils.padString(""));
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("[DONE][PIPELINE] [%s] benchmark...", schemeName)));
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("*** Throughput :: %.2f messages/s  |  failed verifications: %s",
+                        throughput, failedVerifications)));
+        System.out.println(PrintBenchmarkUtils.padString("*** End-to-end latency"));
+        System.out.println(endToEndTimes.getPrettyString());
+
+        for (int i = 0; i < STAGE_NAMES.length; i++) {
+            PrintBenchmarkUtils.printSeparator();
+            System.out.println(PrintBenchmarkUtils.padString(
+                    String.format("*** Stage %s :: %s thread(s)  |  queue depth avg: %.2f  |  max: %s",
+                            STAGE_NAMES[i],
+                            stageThreads[i],
+                            avgQueueDepths.get(STAGE_NAMES[i]),
+                            maxQueueDepths.get(STAGE_NAMES[i]))));
+            System.out.println(stageTimeResults.get(STAGE_NAMES[i]).getPrettyString());
+        }
+
+        PrintBenchmarkUtils.printSeparator();
+        PrintBenchmarkUtils.printSeparator();
+    }
+
+
+    // pipeline stages
+
+
+    /**
+     * defines what each stage does to the payload of a message.
+     * The transport is an in-process stand-in that frames the encoded signature and reads it back.
+     */
+    private List<Function<PipelineItem, Object>> prepareStageFunctions() {
+
+        JSONConverter converter = new JSONConverter();
+
+        List<Function<PipelineItem, Object>> functions = new ArrayList<>();
+
+        // sign: computes the signature and its representation
+        functions.add(item -> schemeInstance.sign(keyPair.getSigningKey(), item.message).getRepresentation());
+
+        // encode: serializes the representation
+        functions.add(item -> converter.serialize((Representation) item.payload).getBytes(StandardCharsets.UTF_8));
+
+        // transmit: writes a length-prefixed frame and reads it back
+        functions.add(item -> transmit((byte[]) item.payload));
+
+        // decode: restores the signature from the received bytes
+        functions.add(item -> schemeInstance.restoreSignature(
+                converter.deserialize(new String((byte[]) item.payload, StandardCharsets.UTF_8))));
+
+        // verify
+        functions.add(item -> schemeInstance.verify(item.message,
+                (Signature) item.payload,
+                keyPair.getVerificationKey()));
+
+        return functions;
+    }
+
+    /**
+     * stands in for the network by sending {@param payload} through an in-memory stream
+     */
+    private static byte[] transmit(byte[] payload) {
+        try {
+            ByteArrayOutputStream wire = new ByteArrayOutputStream(payload.length + Integer.BYTES);
+            DataOutputStream out = new DataOutputStream(wire);
+            out.writeInt(payload.length);
+            out.write(payload);
+            out.flush();
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(wire.toByteArray()));
+            byte[] received = new byte[in.readInt()];
+            in.readFully(received);
+
+            return received;
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    // pipeline execution
+
+
+    /**
+     * sends the first {@param messageCount} messages through the pipeline.
+     * {@param isPrewarm} should the results be stored or discarded
+     */
+    private void runPipeline(int messageCount, boolean isPrewarm) {
+
+        if(messageCount == 0) {
+            return;
+        }
+
+        PipelineRun run = new PipelineRun(messageCount);
+
+        ExecutorService[] executors = new ExecutorService[STAGE_NAMES.length];
+
+        long refTime = System.nanoTime();
+
+        try {
+            // start the workers of each stage
+            for (int stage = 0; stage < STAGE_NAMES.length; stage++) {
+                executors[stage] = Executors.newFixedThreadPool(stageThreads[stage]);
+                AtomicInteger claimed = new AtomicInteger();
+
+                for (int t = 0; t < stageThreads[stage]; t++) {
+                    final int stageIndex = stage;
+                    executors[stage].submit(() -> runStage(run, stageIndex, claimed));
+                }
+            }
+
+            // feed the messages into the first stage
+            for (int i = 0; i < messageCount; i++) {
+                run.put(0, new PipelineItem(i, messages[i], System.nanoTime()));
+            }
+
+            // wait for the last stage, giving up if any stage fails
+            while (!run.done.await(FAILURE_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                run.checkFailure();
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for the pipeline", e);
+        }
+        finally {
+            // stages after a failed start have no executor
+            for (ExecutorService executor : executors) {
+                if(executor != null) {
+                    executor.shutdownNow();
+                }
+            }
+        }
+
+        long finishTime = System.nanoTime();
+
+        if(isPrewarm) {
+            return;
+        }
+
+        // store results for later
+        throughput = messageCount / (BenchmarkTimes.milliFromNano(finishTime - refTime) / 1000);
+        failedVerifications = run.failedVerifications.get();
+        endToEndTimes = BenchmarkTimes.fromSamples(run.endToEndNanos);
+
+        for (int stage = 0; stage < STAGE_NAMES.length; stage++) {
+            stageTimeResults.put(STAGE_NAMES[stage], BenchmarkTimes.fromSamples(run.stageNanos[stage]));
+            maxQueueDepths.put(STAGE_NAMES[stage], run.maxQueueDepths[stage].get());
+            avgQueueDepths.put(STAGE_NAMES[stage], (double) run.queueDepthSums[stage].get() / messageCount);
+        }
+    }
+
+    /**
+     * the work loop of a single worker thread of stage {@param stage}.
+     * Workers of a stage share {@param claimed} so that each of them takes only as many messages as are still due.
+     */
+    private void runStage(PipelineRun run, int stage, AtomicInteger claimed) {
+        try {
+            while (claimed.getAndIncrement() < run.messageCount) {
+                PipelineItem item = run.queues.get(stage).take();
+
+                long refTime = System.nanoTime();
+                item.payload = stageFunctions.get(stage).apply(item);
+                run.stageNanos[stage][item.index] = System.nanoTime() - refTime;
+
+                if(stage + 1 < STAGE_NAMES.length) {
+                    run.put(stage + 1, item);
+                }
+                else {
+                    // the last stage has verified the signature
+                    if(!(Boolean) item.payload) {
+                        run.failedVerifications.incrementAndGet();
+                    }
+                    run.endToEndNanos[item.index] = System.nanoTime() - item.startTime;
+                    run.done.countDown();
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        catch (Throwable e) {
+            // includes errors, which would otherwise vanish in the ignored future of the worker
+            run.failure.compareAndSet(null, e);
+        }
+    }
+
+
+    /**
+     * a message on its way through the pipeline
+     */
+    private static class PipelineItem {
+
+        private final int index;
+
+        private final MessageBlock message;
+
+        /**
+         * the time the message was handed to the pipeline
+         */
+        private final long startTime;
+
+        /**
+         * the result of the last stage the message passed
+         */
+        private Object payload;
+
+        private PipelineItem(int index, MessageBlock message, long startTime) {
+            this.index = index;
+            this.message = message;
+            this.startTime = startTime;
+        }
+    }
+
+    /**
+     * holds the queues and measurements of a single pass through the pipeline
+     */
+    private class PipelineRun {
+
+        private final int messageCount;
+
+        /**
+         * the queue in front of each stage
+         */
+        private final List<BlockingQueue<PipelineItem>> queues;
+
+        private final long[][] stageNanos;
+
+        private final long[] endToEndNanos;
+
+        private final AtomicInteger[] maxQueueDepths;
+
+        private final AtomicLong[] queueDepthSums;
+
+        private final AtomicInteger failedVerifications;
+
+        private final AtomicReference<Throwable> failure;
+
+        /**
+         * counts down once per message leaving the last stage
+         */
+        private final CountDownLatch done;
+
+        private PipelineRun(int messageCount) {
+            this.messageCount = messageCount;
+            this.queues = new ArrayList<>();
+            this.stageNanos = new long[STAGE_NAMES.length][messageCount];
+            this.endToEndNanos = new long[messageCount];
+            this.maxQueueDepths = new AtomicInteger[STAGE_NAMES.length];
+            this.queueDepthSums = new AtomicLong[STAGE_NAMES.length];
+            this.failedVerifications = new AtomicInteger();
+            this.failure = new AtomicReference<>();
+            this.done = new CountDownLatch(messageCount);
+
+            for (int i = 0; i < STAGE_NAMES.length; i++) {
+                queues.add(new ArrayBlockingQueue<>(queueCapacity));
+                maxQueueDepths[i] = new AtomicInteger();
+                queueDepthSums[i] = new AtomicLong();
+            }
+        }
+
+        /**
+         * hands {@param item} to stage {@param stage}, blocking while its queue is full
+         * and giving up once any stage has failed.
+         * Records the depth of the queue after adding the item.
+         */
+        private void put(int stage, PipelineItem item) throws InterruptedException {
+            BlockingQueue<PipelineItem> queue = queues.get(stage);
+
+            while (!queue.offer(item, FAILURE_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                checkFailure();
+            }
+
+            int depth = queue.size();
+            maxQueueDepths[stage].accumulateAndGet(depth, Math::max);
+            queueDepthSums[stage].addAndGet(depth);
+        }
+
+        /**
+         * throws if any stage has failed
+         */
+        private void checkFailure() {
+            if(failure.get() != null) {
+                throw new IllegalStateException("pipeline stage failed", failure.get());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,197 @@
+package spsbenchmark;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded pool of presignatures, refilled in the background by worker threads.
+ *
+ * The pool is lock-free: presignatures are kept in a {@link ConcurrentLinkedQueue} and bounded by an atomic
+ * counter. Workers reserve a slot in the counter before computing a presignature, so the pool never holds
+ * more than its capacity. If the pool is empty, {@link #take()} computes a presignature itself.
+ */
+public class PresignaturePool implements AutoCloseable {
+
+    /**
+     * how long an idle worker waits before checking for free slots again
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final Groth15OfflineOnlineSigner signer;
+
+    private final int capacity;
+
+    private final int workerThreads;
+
+    private final ConcurrentLinkedQueue<Groth15OfflineOnlineSigner.Presignature> presignatures;
+
+    /**
+     * presignatures in the pool plus those being computed for it
+     */
+    private final AtomicInteger reserved;
+
+    private final AtomicLong produced;
+
+    private final AtomicLong hits;
+
+    private final AtomicLong misses;
+
+    /**
+     * the workers that have not stopped yet
+     */
+    private final AtomicInteger liveWorkers;
+
+    /**
+     * the first exception a worker stopped on, if any
+     */
+    private final AtomicReference<Throwable> failure;
+
+    private ExecutorService workers;
+
+    private volatile boolean running;
+
+
+    public PresignaturePool(Groth15OfflineOnlineSigner signer, int capacity, int workerThreads) {
+        this.signer = signer;
+        this.capacity = capacity;
+        this.workerThreads = workerThreads;
+
+        this.presignatures = new ConcurrentLinkedQueue<>();
+        this.reserved = new AtomicInteger();
+        this.produced = new AtomicLong();
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.liveWorkers = new AtomicInteger();
+        this.failure = new AtomicReference<>();
+    }
+
+    /**
+     * starts the workers filling the pool
+     */
+    public void start() {
+        running = true;
+        workers = Executors.newFixedThreadPool(workerThreads);
+        liveWorkers.set(workerThreads);
+
+        for (int i = 0; i < workerThreads; i++) {
+            workers.submit(this::refill);
+        }
+    }
+
+    /**
+     * stops the workers. Presignatures already in the pool remain available
+     */
+    @Override
+    public void close() {
+        running = false;
+
+        if(workers != null) {
+            workers.shutdown();
+            try {
+                workers.awaitTermination(1, TimeUnit.MINUTES);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * takes a presignature from the pool, or computes one if the pool is empty
+     */
+    public Groth15OfflineOnlineSigner.Presignature take() {
+        Groth15OfflineOnlineSigner.Presignature presignature = presignatures.poll();
+
+        if(presignature == null) {
+            misses.incrementAndGet();
+            return signer.presign();
+        }
+
+        reserved.decrementAndGet();
+        hits.incrementAndGet();
+        return presignature;
+    }
+
+    /**
+     * the work loop of a worker: computes presignatures while there are free slots.
+     * A worker whose presign fails releases its slot, records the failure and stops.
+     */
+    private void refill() {
+        try {
+            while (running) {
+                int current = reserved.get();
+
+                if(current >= capacity) {
+                    // pool is full
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+                else if(reserved.compareAndSet(current, current + 1)) {
+                    try {
+                        presignatures.offer(signer.presign());
+                    }
+                    catch (Throwable e) {
+                        reserved.decrementAndGet();
+                        failure.compareAndSet(null, e);
+                        return;
+                    }
+                    produced.incrementAndGet();
+                }
+            }
+        }
+        finally {
+            liveWorkers.decrementAndGet();
+        }
+    }
+
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    /**
+     * the number of presignatures ready to be taken
+     */
+    public int size() {
+        return presignatures.size();
+    }
+
+    public int getLiveWorkers() {
+        return liveWorkers.get();
+    }
+
+    /**
+     * the first exception a worker stopped on, or null if none did
+     */
+    public Throwable getFailure() {
+        return failure.get();
+    }
+
+    public long getProduced() {
+        return produced.get();
+    }
+
+    /**
+     * the number of times {@link #take()} found a presignature in the pool
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * the number of times {@link #take()} found the pool empty
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+}
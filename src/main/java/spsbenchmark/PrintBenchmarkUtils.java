@@ -1,6 +1,8 @@
 package spsbenchmark;
 
 import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * A collection of utilities for running banchmarks
@@ -39,6 +41,24 @@ public class PrintBenchmarkUtils {
         System.out.println(separator());
     }
 
+    /**
+     * gives 1, 2, 4, ... up to and including {@param max}, which must be at least 1
+     */
+    public static List<Integer> doublingSequence(int max) {
+        if(max < 1) {
+            throw new IllegalArgumentException(String.format("the sequence needs a maximum of at least 1, got %s", max));
+        }
+
+        List<Integer> sequence = new ArrayList<>();
+
+        for (int i = 1; i < max; i *= 2) {
+            sequence.add(i);
+        }
+        sequence.add(max);
+
+        return sequence;
+    }
+
     /**
      * prints the given config with nice formatting
      */
@@ -47,7 +67,7 @@ public class PrintBenchmarkUtils {
         System.out.println(separator());
 
         String startMessage = String.format("Running %s benchmark with config... ",
-                (mode == BenchmarkMode.Counting) ? "[Counting]" : "[Timer]");
+                (mode == BenchmarkMode.Time) ? "[Timer]" : String.format("[%s]", mode));
 
         System.out.println(padString(startMessage, CONSOLE_WIDTH));
 
@@ -4,18 +4,21 @@ import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
 import org.cryptimeleon.craco.sig.*;
 import org.cryptimeleon.math.serialization.ListRepresentation;
 import org.cryptimeleon.math.serialization.Representation;
+import org.cryptimeleon.math.structures.groups.debug.DebugBilinearGroup;
 import org.cryptimeleon.math.structures.groups.elliptic.BilinearGroup;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.IntConsumer;
+import java.util.function.UnaryOperator;
 
 /**
  * Initializes a benchmark for a given scheme.
  * The Benchmark will either time each of the signature's functions
  * or
- * Run the scheme a single time, counting the group operations required in each step
+ * Run the scheme for all iterations, counting the group operations required in each step
  */
 public class SPSBenchmark {
 
@@ -33,6 +36,10 @@ public class SPSBenchmark {
      */
     private HashMap<String,BenchmarkTimes> benchmarkTimeResults;
 
+    /**
+     * Stores the operations counted in each iteration of each step
+     */
+    private HashMap<String,BenchmarkCounts> benchmarkCountResults;
 
 
     /**
@@ -63,6 +70,12 @@ public class SPSBenchmark {
 
     private final Signature[] bmSignatures;
 
+    /**
+     * computes the results of keyGen and sign in parallel (see {@code config.parallelism}).
+     * Null if they are computed sequentially
+     */
+    private final ParallelEvaluator parallelEvaluator;
+
 
     /**
      * Sets up a benchmark for the scheme generated by {@param schemeSetupFunction}.
@@ -95,10 +108,19 @@ public class SPSBenchmark {
         this.bmSchemeInstances = new MultiMessageStructurePreservingSignatureScheme[config.getRunIterations()];
 
         this.benchmarkTimeResults = new HashMap<>();
+        this.benchmarkCountResults = new HashMap<>();
+
+        // operations are counted on a single thread
+        this.parallelEvaluator = (mode == BenchmarkMode.Time && config.getParallelism() > 1) ?
+                new ParallelEvaluator(config.getParallelism(), config.getParallelThreshold()) : null;
 
 
         // run the appropriate benchmark
         autoRunBenchmark();
+
+        if(parallelEvaluator != null) {
+            parallelEvaluator.close();
+        }
     }
 
 
@@ -114,10 +136,14 @@ public class SPSBenchmark {
         return benchmarkTimeResults.get(operation);
     }
 
+    public BenchmarkCounts getBenchmarkCountResult(String operation) {
+        return benchmarkCountResults.get(operation);
+    }
+
 
     /**
      * Run all steps required for a signature scheme (i.e. setup, keyGen, sign, verify)
-     * the specified number of times (see {@code config.runIterations}) for timing and once for counting -
+     * the specified number of times (see {@code config.runIterations}) -
      * tracking the appropriate statistic
      */
     @SuppressWarnings("unchecked")
@@ -137,9 +163,11 @@ public class SPSBenchmark {
 
         // keyGen
         benchmarkFunc.accept("keyGen", this::runKeyGen);
+        compactResults(bmKeyPairs, keyPair -> Compaction.compactKeyPair(bmSchemeInstances[0], keyPair));
 
         // sign
         benchmarkFunc.accept("sign", this::runSign);
+        compactResults(bmSignatures, sigma -> Compaction.compactSignature(bmSchemeInstances[0], sigma));
 
         // verify
         benchmarkFunc.accept("verify", this::runVerify);
@@ -150,6 +178,8 @@ public class SPSBenchmark {
                     String.format("[DONE][COUNT] [%s] benchmarks...",
                             schemeBlueprint.getClass().getSimpleName())));
 
+            // the buckets only hold the counts of the last iteration
+            System.out.println(PrintBenchmarkUtils.padString("*** Detailed counts of the last iteration"));
             System.out.println(config.getCountingBGroup().formatCounterDataAllBuckets(false));
         }
     }
@@ -182,6 +212,7 @@ public class SPSBenchmark {
      */
     private Representation runKeyGen(int iterationNumber) {
         SignatureKeyPair keyPair = bmSchemeInstances[0].generateKeyPair(config.getMessageLength());
+        computeInParallel(keyPair);
 
         Representation skRepr = keyPair.getSigningKey().getRepresentation();
         Representation vkRepr = keyPair.getVerificationKey().getRepresentation();
@@ -200,6 +231,7 @@ public class SPSBenchmark {
         // [!] signs using different scheme instances, but with same signing key for all messages
         Signature sigma = bmSchemeInstances[0]
                 .sign(bmKeyPairs[0].getSigningKey(), messages[iterationNumber]);
+        computeInParallel(sigma);
 
         Representation repr = sigma.getRepresentation();
         bmSignatures[iterationNumber] = sigma;
@@ -223,6 +255,34 @@ public class SPSBenchmark {
 
 
 
+    /**
+     * replaces the kept {@param results} by their compacted copies, if the config asks for compaction in timer mode.
+     * This happens after the step was measured, so that it only affects the memory held and the following steps.
+     * Scheme instances are not compacted, as restoring them would also restore a new bilinear group
+     */
+    private <T> void compactResults(T[] results, UnaryOperator<T> compact) {
+        if(mode != BenchmarkMode.Time || !config.isCompaction()) {
+            return;
+        }
+
+        for (int i = 0; i < results.length; i++) {
+            results[i] = compact.apply(results[i]);
+        }
+    }
+
+    /**
+     * computes the group elements of {@param result} on the parallel evaluator, if there is one.
+     * Otherwise, they are computed sequentially once the representation is retrieved.
+     */
+    private void computeInParallel(Object result) {
+        if(parallelEvaluator != null) {
+            parallelEvaluator.computeAll(result);
+        }
+    }
+
+
+
+
     // Timer benchmarks
 
 
@@ -329,6 +389,8 @@ public class SPSBenchmark {
 
     /**
      * runs the target function using the debug group; counting the group operations used.
+     * Counts are recorded separately for each of the {@code config.getRunIterations()} iterations,
+     * as steps may not need the same operations every time (e.g. due to rejection sampling).
      */
     private void runCountingBenchmark(String bmName, IntConsumer targetFunction, boolean isPrewarm) {
 
@@ -341,11 +403,46 @@ public class SPSBenchmark {
             //no pre-warming!
         }
         else {
-            //run the function, this time counting the group operations.
-            // Only needs to run on once
-            config.getCountingBGroup().setBucket(bmName);
-            config.getCountingBGroup().resetCounters(bmName);
-            targetFunction.accept(0);
+            DebugBilinearGroup countingGroup = config.getCountingBGroup();
+            countingGroup.setBucket(bmName);
+
+            long[] groupOps = new long[config.getRunIterations()];
+            long[] groupExps = new long[config.getRunIterations()];
+            long[] bMapApply = new long[config.getRunIterations()];
+            int[][][] multiExpTerms = new int[BenchmarkCounts.GROUP_NAMES.length][config.getRunIterations()][];
+
+            //run the function, this time counting the group operations of each iteration
+            for (int i = 0; i < config.getRunIterations(); i++) {
+                countingGroup.resetCounters(bmName);
+                targetFunction.accept(i);
+
+                groupOps[i] = countingGroup.getNumOpsTotalG1(bmName)
+                        + countingGroup.getNumOpsTotalG2(bmName)
+                        + countingGroup.getNumOpsTotalGT(bmName);
+                groupExps[i] = countingGroup.getNumExpsG1(bmName)
+                        + countingGroup.getNumExpsG2(bmName)
+                        + countingGroup.getNumExpsGT(bmName);
+                bMapApply[i] = countingGroup.getNumPairings(bmName);
+
+                // lazy evaluation combines terms into multi-exponentiations, which are counted separately
+                multiExpTerms[0][i] = toArray(countingGroup.getMultiExpTermNumbersG1(bmName));
+                multiExpTerms[1][i] = toArray(countingGroup.getMultiExpTermNumbersG2(bmName));
+                multiExpTerms[2][i] = toArray(countingGroup.getMultiExpTermNumbersGT(bmName));
+            }
+
+            BenchmarkCounts results = new BenchmarkCounts(groupOps, groupExps, bMapApply, multiExpTerms);
+
+            //store results for later
+            this.benchmarkCountResults.put(bmName, results);
+
+            // print results
+            System.out.println(PrintBenchmarkUtils.padString(
+                    String.format("[DONE][COUNT] %s [%s] benchmark...",
+                            bmName,
+                            schemeBlueprint.getClass().getSimpleName())));
+            System.out.println(results.getPrettyString());
+
+            PrintBenchmarkUtils.printSeparator();
         }
     }
 
@@ -353,9 +450,17 @@ public class SPSBenchmark {
         runCountingBenchmark(bmName,targetFunction,false);
     }
 
+    private static int[] toArray(List<Integer> termNumbers) {
+        return termNumbers.stream().mapToInt(Integer::intValue).toArray();
+    }
+
 
     public HashMap<String, BenchmarkTimes> getBenchmarkTimeResults() {
         return benchmarkTimeResults;
     }
 
+    public HashMap<String, BenchmarkCounts> getBenchmarkCountResults() {
+        return benchmarkCountResults;
+    }
+
 }
@@ -0,0 +1,223 @@
+package spsbenchmark;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * describes a mixed workload: how often each operation is requested, how many keys are in use,
+ * how long the signed messages are, how many clients send requests concurrently and for how long.
+ *
+ * Scenarios are given as {@code key=value} arguments (see {@link #parse}), e.g.
+ * {@code mix=1:100:10000 keys=8 lengths=4:3,16:1 clients=4 duration=30}
+ */
+public class Scenario {
+
+    public static final String[] OPERATION_NAMES = {"keyGen", "sign", "verify"};
+
+
+    /**
+     * the relative frequency of each operation (in the order of {@link #OPERATION_NAMES})
+     */
+    private final int[] operationWeights;
+
+    /**
+     * the number of key pairs per message length
+     */
+    private final int keyCount;
+
+    /**
+     * the relative frequency of each message length
+     */
+    private final LinkedHashMap<Integer,Integer> lengthWeights;
+
+    /**
+     * the number of clients sending requests concurrently
+     */
+    private final int clients;
+
+    /**
+     * how long the workload is run (in seconds)
+     */
+    private final int durationSeconds;
+
+
+    public Scenario(int[] operationWeights,
+                    int keyCount,
+                    LinkedHashMap<Integer,Integer> lengthWeights,
+                    int clients,
+                    int durationSeconds) {
+
+        if(operationWeights.length != OPERATION_NAMES.length || sum(operationWeights) <= 0) {
+            throw new IllegalArgumentException("the operation mix needs a weight for keyGen, sign and verify");
+        }
+        for (int weight : operationWeights) {
+            if(weight < 0) {
+                throw new IllegalArgumentException(String.format("mix: weights must not be negative, got %s", weight));
+            }
+        }
+        if(keyCount <= 0) {
+            throw new IllegalArgumentException(String.format("keys: needs at least one key, got %s", keyCount));
+        }
+        if(lengthWeights.isEmpty()) {
+            throw new IllegalArgumentException("the scenario needs at least one message length");
+        }
+        for (Map.Entry<Integer,Integer> entry : lengthWeights.entrySet()) {
+            if(entry.getKey() <= 0) {
+                throw new IllegalArgumentException(
+                        String.format("lengths: message lengths must be positive, got %s", entry.getKey()));
+            }
+            if(entry.getValue() < 0) {
+                throw new IllegalArgumentException(
+                        String.format("lengths: weights must not be negative, got %s", entry.getValue()));
+            }
+        }
+        if(lengthWeights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("lengths: at least one message length needs a positive weight");
+        }
+        if(clients <= 0) {
+            throw new IllegalArgumentException(String.format("clients: needs at least one client, got %s", clients));
+        }
+        if(durationSeconds <= 0) {
+            throw new IllegalArgumentException(
+                    String.format("duration: must be at least one second, got %s", durationSeconds));
+        }
+
+        this.operationWeights = operationWeights;
+        this.keyCount = keyCount;
+        this.lengthWeights = lengthWeights;
+        this.clients = clients;
+        this.durationSeconds = durationSeconds;
+    }
+
+    /**
+     * parses a scenario from {@code key=value} {@param arguments}. Missing keys fall back to
+     * {@code mix=1:100:10000 keys=8 lengths=<defaultMessageLength> clients=4 duration=30}.
+     *
+     * {@code mix} gives the weights of keyGen, sign and verify. {@code lengths} is a comma separated list of
+     * message lengths, each optionally followed by {@code :weight} (default 1).
+     */
+    public static Scenario parse(String[] arguments, int defaultMessageLength) {
+
+        int[] operationWeights = {1, 100, 10000};
+        int keyCount = 8;
+        LinkedHashMap<Integer,Integer> lengthWeights = new LinkedHashMap<>();
+        lengthWeights.put(defaultMessageLength, 1);
+        int clients = 4;
+        int durationSeconds = 30;
+
+        for (String argument : arguments) {
+            String[] keyValue = argument.split("=", 2);
+            if(keyValue.length != 2) {
+                throw new IllegalArgumentException(String.format("expected key=value, got: %s", argument));
+            }
+
+            switch (keyValue[0]) {
+                case "mix":
+                    String[] weights = keyValue[1].split(":");
+                    operationWeights = new int[weights.length];
+                    for (int i = 0; i < weights.length; i++) {
+                        operationWeights[i] = Integer.parseInt(weights[i]);
+                    }
+                    break;
+                case "keys":
+                    keyCount = Integer.parseInt(keyValue[1]);
+                    break;
+                case "lengths":
+                    lengthWeights = new LinkedHashMap<>();
+                    for (String length : keyValue[1].split(",")) {
+                        String[] lengthWeight = length.split(":", 2);
+                        lengthWeights.put(Integer.parseInt(lengthWeight[0]),
+                                (lengthWeight.length == 2) ? Integer.parseInt(lengthWeight[1]) : 1);
+                    }
+                    break;
+                case "clients":
+                    clients = Integer.parseInt(keyValue[1]);
+                    break;
+                case "duration":
+                    durationSeconds = Integer.parseInt(keyValue[1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException(String.format("unknown scenario key: %s", keyValue[0]));
+            }
+        }
+
+        return new Scenario(operationWeights, keyCount, lengthWeights, clients, durationSeconds);
+    }
+
+
+    /**
+     * draws the index of an operation (into {@link #OPERATION_NAMES}) according to the mix
+     */
+    public int pickOperation(Random random) {
+        int pick = random.nextInt(sum(operationWeights));
+
+        for (int i = 0; i < operationWeights.length; i++) {
+            pick -= operationWeights[i];
+            if(pick < 0) {
+                return i;
+            }
+        }
+
+        throw new IllegalStateException("operation weights changed while picking");
+    }
+
+    /**
+     * draws a message length according to the length distribution
+     */
+    public int pickMessageLength(Random random) {
+        int pick = random.nextInt(lengthWeights.values().stream().mapToInt(Integer::intValue).sum());
+
+        for (Map.Entry<Integer,Integer> entry : lengthWeights.entrySet()) {
+            pick -= entry.getValue();
+            if(pick < 0) {
+                return entry.getKey();
+            }
+        }
+
+        throw new IllegalStateException("length weights changed while picking");
+    }
+
+    private static int sum(int[] values) {
+        int sum = 0;
+        for (int value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+
+    public int[] getOperationWeights() {
+        return operationWeights;
+    }
+
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    public LinkedHashMap<Integer, Integer> getLengthWeights() {
+        return lengthWeights;
+    }
+
+    public int getClients() {
+        return clients;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public String toPrettyString() {
+        return String.format("mix (keyGen:sign:verify) %s :: %s key(s) per length :: lengths (length:weight) %s"
+                        + " :: %s client(s) :: %ss",
+                operationWeights[0] + ":" + operationWeights[1] + ":" + operationWeights[2],
+                keyCount,
+                lengthWeights.entrySet().stream()
+                        .map(entry -> entry.getKey() + ":" + entry.getValue())
+                        .collect(Collectors.joining(",")),
+                clients,
+                durationSeconds);
+    }
+
+}
@@ -0,0 +1,361 @@
+package spsbenchmark;
+
+import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
+import org.cryptimeleon.craco.sig.MultiMessageStructurePreservingSignatureScheme;
+import org.cryptimeleon.craco.sig.Signature;
+import org.cryptimeleon.craco.sig.SignatureKeyPair;
+import org.cryptimeleon.math.structures.groups.Group;
+import org.cryptimeleon.math.structures.groups.elliptic.BilinearGroup;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Runs a mixed workload described by a {@link Scenario} against a scheme.
+ *
+ * For each message length of the scenario, the scheme is set up once and {@code scenario.keyCount} key pairs are
+ * generated, each with a signed credential. Clients then send requests for the duration of the scenario, each
+ * picking an operation, a message length and a key at random:
+ * keyGen generates a new key pair (which is not put into use, so that the keys stay comparable),
+ * sign signs a random message and replaces the credential of the key,
+ * and verify checks the current credential of the key.
+ */
+public class ScenarioBenchmark {
+
+    /**
+     * seeds the requests: client i uses seed {@code WORKLOAD_SEED + i}, pre-warming uses {@code WORKLOAD_SEED - 1}
+     */
+    private static final long WORKLOAD_SEED = 42;
+
+
+    // these are given on start up
+
+    /**
+     * defines the shared parameters of the benchmark
+     */
+    private final BenchmarkConfig config;
+
+    private final Scenario scenario;
+
+
+    // these are calculated during the benchmark
+
+    /**
+     * the scheme, keys, messages and credentials of each message length
+     */
+    private final LinkedHashMap<Integer,LengthState> lengthStates;
+
+    /**
+     * Stores the latencies of each operation
+     */
+    private final LinkedHashMap<String,BenchmarkTimes> benchmarkTimeResults;
+
+    /**
+     * the number of completed requests of each operation
+     */
+    private final LinkedHashMap<String,Integer> operationCounts;
+
+    /**
+     * the time the workload actually ran for (in nanoseconds)
+     */
+    private long elapsedTime;
+
+    private final AtomicInteger failedVerifications;
+
+
+    /**
+     * Sets up {@param scenario} for the scheme generated by {@param schemeSetupFunction},
+     * with {@code config.runIterations} messages per message length
+     */
+    public ScenarioBenchmark(BenchmarkConfig config,
+                             Scenario scenario,
+                             Function<BilinearGroup,Group> messageGroup,
+                             UnaryOperator<MessageBlock> messageWrapper,
+                             BiFunction<BilinearGroup,Integer,MultiMessageStructurePreservingSignatureScheme> schemeSetupFunction) {
+
+        if(config.getRunIterations() <= 0) {
+            throw new IllegalArgumentException("iterations: the scenario needs at least one message per length");
+        }
+
+        // print the config
+        PrintBenchmarkUtils.prettyPrintConfig(config, BenchmarkMode.Scenario);
+
+        this.config = config;
+        this.scenario = scenario;
+
+        this.lengthStates = new LinkedHashMap<>();
+        for (int messageLength : scenario.getLengthWeights().keySet()) {
+            MessageBlock[] messages = Arrays.stream(MessageGenerator.prepareMessages(
+                            messageGroup.apply(config.getTimerBGroup()), config.getRunIterations(), messageLength))
+                    .map(messageWrapper)
+                    .toArray(MessageBlock[]::new);
+
+            lengthStates.put(messageLength, new LengthState(
+                    schemeSetupFunction.apply(config.getTimerBGroup(), messageLength), messageLength, messages));
+        }
+
+        this.benchmarkTimeResults = new LinkedHashMap<>();
+        this.operationCounts = new LinkedHashMap<>();
+        this.failedVerifications = new AtomicInteger();
+
+        autoRunBenchmark();
+    }
+
+
+    public BenchmarkConfig getConfig() {
+        return config;
+    }
+
+    public Scenario getScenario() {
+        return scenario;
+    }
+
+    public BenchmarkTimes getBenchmarkTimeResult(String operation) {
+        return benchmarkTimeResults.get(operation);
+    }
+
+    public LinkedHashMap<String, BenchmarkTimes> getBenchmarkTimeResults() {
+        return benchmarkTimeResults;
+    }
+
+    public LinkedHashMap<String, Integer> getOperationCounts() {
+        return operationCounts;
+    }
+
+    /**
+     * completed requests per second over all operations
+     */
+    public double getThroughput() {
+        int requests = operationCounts.values().stream().mapToInt(Integer::intValue).sum();
+        return requests / (BenchmarkTimes.milliFromNano(elapsedTime) / 1000);
+    }
+
+    public int getFailedVerifications() {
+        return failedVerifications.get();
+    }
+
+
+    private void autoRunBenchmark() {
+
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("[START][SCENARIO] %s", scenario.toPrettyString())));
+
+        // pre-warm every operation on every message length
+        Random prewarmRandom = new Random(WORKLOAD_SEED - 1);
+        for (LengthState state : lengthStates.values()) {
+            for (int i = 0; i < config.getPrewarmIterations(); i++) {
+                for (int operation = 0; operation < Scenario.OPERATION_NAMES.length; operation++) {
+                    runOperation(operation, state, prewarmRandom);
+                }
+            }
+        }
+
+        // run the clients until the deadline
+        List<List<List<Long>>> clientSamples = new ArrayList<>();
+        ExecutorService clients = Executors.newFixedThreadPool(scenario.getClients());
+
+        long startTime = System.nanoTime();
+        long deadline = startTime + TimeUnit.SECONDS.toNanos(scenario.getDurationSeconds());
+
+        try {
+            List<Future<List<List<Long>>>> futures = new ArrayList<>();
+            for (int i = 0; i < scenario.getClients(); i++) {
+                Random random = new Random(WORKLOAD_SEED + i);
+                futures.add(clients.submit(() -> runClient(random, deadline)));
+            }
+
+            for (Future<List<List<Long>>> future : futures) {
+                clientSamples.add(future.get());
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while running the scenario", e);
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("a client of the scenario failed", e.getCause());
+        }
+        finally {
+            clients.shutdown();
+        }
+
+        elapsedTime = System.nanoTime() - startTime;
+
+        // merge the samples of all clients
+        for (int operation = 0; operation < Scenario.OPERATION_NAMES.length; operation++) {
+            int finalOperation = operation;
+            long[] samples = clientSamples.stream()
+                    .flatMap(samplesPerOperation -> samplesPerOperation.get(finalOperation).stream())
+                    .mapToLong(Long::longValue)
+                    .toArray();
+
+            operationCounts.put(Scenario.OPERATION_NAMES[operation], samples.length);
+            if(samples.length > 0) {
+                benchmarkTimeResults.put(Scenario.OPERATION_NAMES[operation], BenchmarkTimes.fromSamples(samples));
+            }
+        }
+
+        printResults();
+    }
+
+    /**
+     * sends requests until {@param deadline}, returning the latencies of each operation
+     */
+    private List<List<Long>> runClient(Random random, long deadline) {
+        List<List<Long>> samples = new ArrayList<>();
+        for (int operation = 0; operation < Scenario.OPERATION_NAMES.length; operation++) {
+            samples.add(new ArrayList<>());
+        }
+
+        while (System.nanoTime() < deadline) {
+            int operation = scenario.pickOperation(random);
+            LengthState state = lengthStates.get(scenario.pickMessageLength(random));
+
+            samples.get(operation).add(runOperation(operation, state, random));
+        }
+
+        return samples;
+    }
+
+    /**
+     * runs the operation with index {@param operation} (see {@link Scenario#OPERATION_NAMES}) on a random key of
+     * {@param state}, returning its latency
+     */
+    private long runOperation(int operation, LengthState state, Random random) {
+        int key = random.nextInt(state.keyPairs.length);
+
+        if(operation == 0) {
+            long refTime = System.nanoTime();
+            state.generateKeyPair();
+            return System.nanoTime() - refTime;
+        }
+
+        if(operation == 1) {
+            MessageBlock message = state.messages[random.nextInt(state.messages.length)];
+
+            long refTime = System.nanoTime();
+            Signature sigma = state.sign(key, message);
+            long delta = System.nanoTime() - refTime;
+
+            state.credentials.set(key, new Credential(message, sigma));
+            return delta;
+        }
+
+        Credential credential = state.credentials.get(key);
+
+        long refTime = System.nanoTime();
+        boolean valid = state.scheme.verify(
+                credential.message, credential.signature, state.keyPairs[key].getVerificationKey());
+        long delta = System.nanoTime() - refTime;
+
+        if(!valid) {
+            failedVerifications.incrementAndGet();
+        }
+        return delta;
+    }
+
+    private void printResults() {
+
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("[DONE][SCENARIO] benchmark... failed verifications: %s", failedVerifications.get())));
+
+        PrintBenchmarkUtils.printSeparator();
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("*** Throughput :: %.2f requests/s over %s", getThroughput(),
+                        BenchmarkTimes.formatTimeInMs(elapsedTime))));
+
+        for (String operation : Scenario.OPERATION_NAMES) {
+            PrintBenchmarkUtils.printSeparator();
+            int count = operationCounts.get(operation);
+            System.out.println(PrintBenchmarkUtils.padString(
+                    String.format("*** %s :: %s requests  |  %.2f requests/s", operation, count,
+                            count / (BenchmarkTimes.milliFromNano(elapsedTime) / 1000))));
+
+            if(benchmarkTimeResults.containsKey(operation)) {
+                System.out.println(benchmarkTimeResults.get(operation).getPrettyString());
+            }
+        }
+
+        PrintBenchmarkUtils.printSeparator();
+        PrintBenchmarkUtils.printSeparator();
+    }
+
+
+    /**
+     * a message together with its signature
+     */
+    private static class Credential {
+
+        private final MessageBlock message;
+
+        private final Signature signature;
+
+        private Credential(MessageBlock message, Signature signature) {
+            this.message = message;
+            this.signature = signature;
+        }
+    }
+
+    /**
+     * the scheme instance, keys, messages and current credentials of one message length
+     */
+    private class LengthState {
+
+        private final MultiMessageStructurePreservingSignatureScheme scheme;
+
+        private final int messageLength;
+
+        private final MessageBlock[] messages;
+
+        private final SignatureKeyPair[] keyPairs;
+
+        /**
+         * the last credential signed under each key
+         */
+        private final AtomicReferenceArray<Credential> credentials;
+
+        private LengthState(MultiMessageStructurePreservingSignatureScheme scheme,
+                            int messageLength,
+                            MessageBlock[] messages) {
+
+            this.scheme = scheme;
+            this.messageLength = messageLength;
+            this.messages = messages;
+
+            this.keyPairs = new SignatureKeyPair[scenario.getKeyCount()];
+            this.credentials = new AtomicReferenceArray<>(keyPairs.length);
+
+            for (int i = 0; i < keyPairs.length; i++) {
+                keyPairs[i] = generateKeyPair();
+                MessageBlock message = messages[i % messages.length];
+                credentials.set(i, new Credential(message, sign(i, message)));
+            }
+        }
+
+        private SignatureKeyPair generateKeyPair() {
+            SignatureKeyPair keyPair = scheme.generateKeyPair(messageLength);
+
+            keyPair.getSigningKey().getRepresentation();
+            keyPair.getVerificationKey().getRepresentation();
+
+            return keyPair;
+        }
+
+        private Signature sign(int key, MessageBlock message) {
+            Signature sigma = scheme.sign(keyPairs[key].getSigningKey(), message);
+            sigma.getRepresentation();
+
+            return sigma;
+        }
+    }
+
+}
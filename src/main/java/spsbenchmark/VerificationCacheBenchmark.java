@@ -0,0 +1,224 @@
+package spsbenchmark;
+
+import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
+import org.cryptimeleon.craco.sig.MultiMessageStructurePreservingSignatureScheme;
+import org.cryptimeleon.craco.sig.Signature;
+import org.cryptimeleon.craco.sig.SignatureKeyPair;
+import org.cryptimeleon.craco.sig.VerificationKey;
+import org.cryptimeleon.math.structures.groups.elliptic.BilinearGroup;
+
+import java.util.Random;
+import java.util.function.BiFunction;
+import java.util.function.IntPredicate;
+
+/**
+ * Compares the plain verify against a {@link CachingVerifier} on a workload in which credentials are
+ * verified repeatedly.
+ *
+ * Each of the {@code config.runIterations} messages is signed once up front. The workload then consists of
+ * verification requests, each of which repeats an already verified credential with probability
+ * {@code repeatRatio} and verifies a new one otherwise.
+ */
+public class VerificationCacheBenchmark {
+
+    /**
+     * seeds the choice between repeated and new credentials
+     */
+    private static final long WORKLOAD_SEED = 42;
+
+
+    // these are given on start up
+
+    /**
+     * defines the shared parameters of the benchmark
+     */
+    private final BenchmarkConfig config;
+
+    private final MessageBlock[] messages;
+
+    private final double repeatRatio;
+
+    private final int cacheCapacity;
+
+    private final int requestCount;
+
+
+    // these are calculated during the benchmark
+
+    private final MultiMessageStructurePreservingSignatureScheme schemeInstance;
+
+    private final VerificationKey verificationKey;
+
+    private final Signature[] signatures;
+
+    /**
+     * the index of the credential verified by each request
+     */
+    private final int[] workload;
+
+    private BenchmarkTimes plainTimes;
+
+    private BenchmarkTimes cachedTimes;
+
+    private double hitRate;
+
+    /**
+     * the average time spent encoding and hashing per request (in nanoseconds)
+     */
+    private double avgHashingTime;
+
+
+    /**
+     * Sets up a verification cache benchmark of {@param requestCount} requests for the scheme generated
+     * by {@param schemeSetupFunction}.
+     */
+    public VerificationCacheBenchmark(BenchmarkConfig config,
+                                      MessageBlock[] messages,
+                                      BiFunction<BilinearGroup,Integer,MultiMessageStructurePreservingSignatureScheme> schemeSetupFunction,
+                                      double repeatRatio,
+                                      int cacheCapacity,
+                                      int requestCount) {
+
+        if(config.getRunIterations() < 1) {
+            throw new IllegalArgumentException("iterations: the workload needs at least one credential");
+        }
+        if(requestCount < 1) {
+            throw new IllegalArgumentException(
+                    String.format("requests: the workload needs at least one request, got %s", requestCount));
+        }
+
+        // print the config
+        PrintBenchmarkUtils.prettyPrintConfig(config, BenchmarkMode.VerificationCache);
+
+        this.config = config;
+        this.messages = messages;
+        this.repeatRatio = repeatRatio;
+        this.cacheCapacity = cacheCapacity;
+        this.requestCount = requestCount;
+
+        //instantiate the scheme and sign every message once
+        this.schemeInstance = schemeSetupFunction.apply(config.getTimerBGroup(), config.getMessageLength());
+        SignatureKeyPair keyPair = schemeInstance.generateKeyPair(config.getMessageLength());
+        this.verificationKey = keyPair.getVerificationKey();
+
+        this.signatures = new Signature[config.getRunIterations()];
+        for (int i = 0; i < signatures.length; i++) {
+            signatures[i] = schemeInstance.sign(keyPair.getSigningKey(), messages[i]);
+            signatures[i].getRepresentation();
+        }
+
+        this.workload = prepareWorkload();
+
+        autoRunBenchmark();
+    }
+
+
+    public BenchmarkConfig getConfig() {
+        return config;
+    }
+
+    public BenchmarkTimes getPlainTimes() {
+        return plainTimes;
+    }
+
+    public BenchmarkTimes getCachedTimes() {
+        return cachedTimes;
+    }
+
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    public double getAvgHashingTime() {
+        return avgHashingTime;
+    }
+
+
+    /**
+     * picks the credential of each request: a repeat of an earlier one with probability {@code repeatRatio},
+     * otherwise the next new one (as long as new ones are left)
+     */
+    private int[] prepareWorkload() {
+        Random random = new Random(WORKLOAD_SEED);
+
+        int[] credentials = new int[requestCount];
+        int issued = 0;
+
+        for (int i = 0; i < requestCount; i++) {
+            boolean repeat = issued > 0 && (issued == signatures.length || random.nextDouble() < repeatRatio);
+
+            credentials[i] = (repeat) ? random.nextInt(issued) : issued++;
+        }
+
+        return credentials;
+    }
+
+    private void autoRunBenchmark() {
+
+        String schemeName = schemeInstance.getClass().getSimpleName();
+
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("[START][VERIFY-CACHE] [%s] %s requests :: repeat ratio %.2f :: cache capacity %s",
+                        schemeName, requestCount, repeatRatio, cacheCapacity)));
+
+        // plain verify
+        plainTimes = measureWorkload(
+                i -> schemeInstance.verify(messages[i], signatures[i], verificationKey),
+                i -> schemeInstance.verify(messages[i], signatures[i], verificationKey));
+
+        // cached verify, pre-warmed on its own cache
+        CachingVerifier prewarmVerifier = new CachingVerifier(schemeInstance, cacheCapacity);
+        CachingVerifier verifier = new CachingVerifier(schemeInstance, cacheCapacity);
+        cachedTimes = measureWorkload(
+                i -> prewarmVerifier.verify(messages[i], signatures[i], verificationKey),
+                i -> verifier.verify(messages[i], signatures[i], verificationKey));
+
+        hitRate = verifier.getHitRate();
+        avgHashingTime = (double) verifier.getHashingTime() / requestCount;
+
+        // print results
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("[DONE][VERIFY-CACHE] [%s] benchmark...", schemeName)));
+
+        PrintBenchmarkUtils.printSeparator();
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("*** plain verify :: %.2f verifications/s", throughput(plainTimes))));
+        System.out.println(plainTimes.getPrettyString());
+
+        PrintBenchmarkUtils.printSeparator();
+        System.out.println(PrintBenchmarkUtils.padString(
+                String.format("*** cached verify :: %.2f verifications/s  |  hit rate %.2f%%  |  hashing avg %s",
+                        throughput(cachedTimes), 100 * hitRate, BenchmarkTimes.formatTimeInMs(avgHashingTime))));
+        System.out.println(cachedTimes.getPrettyString());
+
+        PrintBenchmarkUtils.printSeparator();
+        PrintBenchmarkUtils.printSeparator();
+    }
+
+    /**
+     * pre-warms with {@param prewarmVerify} and then runs all requests of the workload through {@param verify}.
+     * Both are given the credential index
+     */
+    private BenchmarkTimes measureWorkload(IntPredicate prewarmVerify, IntPredicate verify) {
+        return BenchmarkTimes.measureSelfTimed(config.getPrewarmIterations(), requestCount,
+                i -> prewarmVerify.test(workload[i]),
+                i -> {
+                    long refTime = System.nanoTime();
+                    boolean valid = verify.test(workload[i]);
+                    long delta = System.nanoTime() - refTime;
+
+                    if(!valid) {
+                        throw new IllegalStateException(String.format("credential %s did not verify", workload[i]));
+                    }
+                    return delta;
+                });
+    }
+
+    /**
+     * verifications per second, given the times of all requests
+     */
+    private static double throughput(BenchmarkTimes times) {
+        return 1000 / BenchmarkTimes.milliFromNano(times.getAvgTime());
+    }
+
+}
@@ -0,0 +1,74 @@
+package spsbenchmark;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * checks the statistics of {@link InputClassBenchmark} against examples computed by hand
+ */
+public class InputClassBenchmarkTest {
+
+    private static final double DELTA = 1e-6;
+
+    /**
+     * the tortoise and hare race: the tortoise finishes 1st and 7th to 11th, the hare 2nd to 6th and 12th.
+     * U = 25 for the tortoise, with mean 18 and variance 39 (no ties), so z = 7 / sqrt(39) = 1.1209
+     */
+    @Test
+    public void testMannWhitneyWithoutTies() {
+        long[] tortoise = {1, 7, 8, 9, 10, 11};
+        long[] hare = {2, 3, 4, 5, 6, 12};
+
+        assertEquals(0.262332, InputClassBenchmark.mannWhitneyPValue(tortoise, hare), DELTA);
+    }
+
+    /**
+     * the test is two-sided, so swapping the samples gives the same p-value
+     */
+    @Test
+    public void testMannWhitneyIsSymmetric() {
+        long[] tortoise = {1, 7, 8, 9, 10, 11};
+        long[] hare = {2, 3, 4, 5, 6, 12};
+
+        assertEquals(InputClassBenchmark.mannWhitneyPValue(tortoise, hare),
+                InputClassBenchmark.mannWhitneyPValue(hare, tortoise), DELTA);
+    }
+
+    /**
+     * three samples tie at 3 and get the average rank 4. U = 1 with mean 8,
+     * and the tie correction reduces the variance from 12 to 4/3 * (9 - 24/56) = 11.428571,
+     * so z = 7 / sqrt(11.428571) = 2.0706
+     */
+    @Test
+    public void testMannWhitneyWithTies() {
+        long[] a = {1, 2, 3, 3};
+        long[] b = {3, 4, 5, 6};
+
+        assertEquals(0.038394, InputClassBenchmark.mannWhitneyPValue(a, b), DELTA);
+    }
+
+    @Test
+    public void testMannWhitneyOfEqualSamples() {
+        long[] a = {5, 5, 5};
+        long[] b = {5, 5};
+
+        assertEquals(1, InputClassBenchmark.mannWhitneyPValue(a, b), DELTA);
+    }
+
+    /**
+     * three structured classes are compared against the baseline, for sign and verify
+     */
+    @Test
+    public void testBonferroniCorrection() {
+        assertEquals(InputClassBenchmark.SIGNIFICANCE_LEVEL / 6, InputClassBenchmark.correctedSignificanceLevel(),
+                1e-12);
+    }
+
+    @Test
+    public void testMedian() {
+        assertEquals(3, InputClassBenchmark.median(new long[] {5, 1, 3}), DELTA);
+        assertEquals(2.5, InputClassBenchmark.median(new long[] {4, 1, 3, 2}), DELTA);
+    }
+
+}